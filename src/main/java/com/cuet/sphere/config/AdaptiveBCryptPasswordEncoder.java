@@ -0,0 +1,108 @@
+package com.cuet.sphere.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose work factor is chosen per deployment.
+ * The cost is recorded in every hash it produces ($2a$NN$...), and {@link #upgradeEncoding(String)}
+ * reports any stored hash whose cost differs from the current one, so hashes can be
+ * re-encoded on the next successful signin instead of through a migration.
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    // Timings per strength; the median of an odd count ignores one slow outlier (GC, a busy neighbour)
+    private static final int CALIBRATION_RUNS = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Pick the highest cost between minStrength and maxStrength whose median hash time on this
+     * machine stays within targetMillis. Each step doubles the work, so we stop at the
+     * first strength that goes over the target.
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm up so class loading and JIT don't count against the first measurements
+        measure(minStrength);
+        measure(minStrength);
+        return new AdaptiveBCryptPasswordEncoder(
+                chooseStrength(targetMillis, minStrength, maxStrength, AdaptiveBCryptPasswordEncoder::measure));
+    }
+
+    static int chooseStrength(long targetMillis, int minStrength, int maxStrength, IntToLongFunction measure) {
+        int chosen = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long[] runs = new long[CALIBRATION_RUNS];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = measure.applyAsLong(candidate);
+            }
+            Arrays.sort(runs);
+            long median = runs[runs.length / 2];
+            logger.info("BCrypt calibration: strength {} took {}ms (median of {})", candidate, median, runs.length);
+            if (median > targetMillis) {
+                break;
+            }
+            chosen = candidate;
+        }
+        return chosen;
+    }
+
+    /**
+     * Cost recorded in a BCrypt hash, or -1 if the value is not a BCrypt hash.
+     */
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        return Integer.parseInt(matcher.group(2));
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        // BCrypt reads the cost from the stored hash, so any strength verifies here
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = strengthOf(encodedPassword);
+        return stored != -1 && stored != strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -2,6 +2,11 @@ package com.cuet.sphere.config;
 
 import com.cuet.sphere.config.JwtTokenValidator;
 import com.cuet.sphere.config.JwtProvider;
+import com.cuet.sphere.service.UploadAdmissionService;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,9 +17,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -26,18 +31,28 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class AppConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+
+    @Bean
+    public JwtVerifier jwtVerifier(@Value("${jwt.cache.max-size:10000}") int cacheMaxSize,
+                                   @Value("${jwt.cache.ttl-seconds:300}") long cacheTtlSeconds) {
+        return new JwtVerifier(JwtConstant.SECRET_KEY, cacheMaxSize, cacheTtlSeconds * 1000);
+    }
+
     @Bean
-    public JwtTokenValidator jwtTokenValidator() {
-        return new JwtTokenValidator();
+    public JwtTokenValidator jwtTokenValidator(JwtVerifier jwtVerifier) {
+        return new JwtTokenValidator(jwtVerifier);
     }
 
     @Bean
-    public JwtProvider jwtProvider() {
-        return new JwtProvider();
+    public JwtProvider jwtProvider(JwtVerifier jwtVerifier) {
+        return new JwtProvider(jwtVerifier);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider,
+                                                   JwtTokenValidator jwtTokenValidator,
+                                                   UploadAdmissionService uploadAdmissionService) throws Exception {
         System.out.println("=== CONFIGURING SECURITY FILTER CHAIN ===");
         
         http
@@ -46,13 +61,17 @@ public class AppConfig {
                 )
                 .authorizeHttpRequests(auth -> {
                     System.out.println("Configuring authorization rules...");
+                    // Async results are written on a second dispatch of a request that was already authorized
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                     auth.requestMatchers("/auth/**", "/public/**").permitAll();
                     auth.requestMatchers("/api/**").authenticated();
                     auth.anyRequest().permitAll();
                     System.out.println("Authorization rules configured");
                 })
                 .authenticationProvider(authenticationProvider)
-                .addFilterBefore(jwtTokenValidator(), BasicAuthenticationFilter.class)
+                .addFilterBefore(jwtTokenValidator, BasicAuthenticationFilter.class)
+                // Not a bean, so it only runs here, once the request is known to be authorized
+                .addFilterAfter(new UploadAdmissionFilter(uploadAdmissionService), AuthorizationFilter.class)
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .httpBasic(httpBasic -> httpBasic.disable())
@@ -78,8 +97,16 @@ public class AppConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.bcrypt.target-millis:250}") long targetMillis,
+                                           @Value("${auth.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${auth.bcrypt.max-strength:14}") int maxStrength) {
+        // A fixed strength skips calibration; otherwise tune the cost to this machine
+        AdaptiveBCryptPasswordEncoder encoder = strength > 0
+                ? new AdaptiveBCryptPasswordEncoder(strength)
+                : AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+        logger.info("Using BCrypt strength {}", encoder.getStrength());
+        return encoder;
     }
 
     @Bean
@@ -58,25 +58,25 @@ public class DataLoader implements CommandLineRunner {
         if (departmentRepository.count() == 0) {
             List<Department> departments = Arrays.asList(
                 // Engineering Departments
-                createDepartment("Civil Engineering"),
-                createDepartment("Mechanical Engineering"),
-                createDepartment("Electrical & Electronics Engineering"),
-                createDepartment("Computer Science & Engineering"),
-                createDepartment("Water Resources Engineering"),
-                createDepartment("Petroleum & Mining Engineering"),
-                createDepartment("Mechatronics and Industrial Engineering"),
-                createDepartment("Electronics & Telecommunication Engineering"),
-                createDepartment("Urban & Regional Planning"),
-                createDepartment("Architecture"),
-                createDepartment("Biomedical Engineering"),
-                createDepartment("Nuclear Engineering"),
-                createDepartment("Materials Science & Engineering"),
+                createDepartment("01", "Civil Engineering"),
+                createDepartment("02", "Mechanical Engineering"),
+                createDepartment("03", "Electrical & Electronics Engineering"),
+                createDepartment("04", "Computer Science & Engineering"),
+                createDepartment("05", "Water Resources Engineering"),
+                createDepartment("06", "Petroleum & Mining Engineering"),
+                createDepartment("07", "Mechatronics and Industrial Engineering"),
+                createDepartment("08", "Electronics & Telecommunication Engineering"),
+                createDepartment("09", "Urban & Regional Planning"),
+                createDepartment("10", "Architecture"),
+                createDepartment("11", "Biomedical Engineering"),
+                createDepartment("12", "Nuclear Engineering"),
+                createDepartment("13", "Materials Science & Engineering"),
                 
                 // Basic Science Departments
-                createDepartment("Physics"),
-                createDepartment("Chemistry"),
-                createDepartment("Mathematics"),
-                createDepartment("Humanities")
+                createDepartment("14", "Physics"),
+                createDepartment("15", "Chemistry"),
+                createDepartment("16", "Mathematics"),
+                createDepartment("17", "Humanities")
             );
             
             departmentRepository.saveAll(departments);
@@ -350,8 +350,9 @@ public class DataLoader implements CommandLineRunner {
         }
     }
 
-    private Department createDepartment(String name) {
+    private Department createDepartment(String code, String name) {
         Department dept = new Department();
+        dept.setDeptCode(code);
         dept.setDeptName(name);
         return dept;
     }
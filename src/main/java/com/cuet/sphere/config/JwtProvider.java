@@ -1,7 +1,7 @@
 package com.cuet.sphere.config;
 
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -10,7 +10,13 @@ import java.util.Date;
 import java.util.stream.Collectors;
 
 public class JwtProvider {
-    private final SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
+    private final JwtVerifier jwtVerifier;
+    private final SecretKey key;
+
+    public JwtProvider(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+        this.key = jwtVerifier.getKey();
+    }
 
     public String generateToken(Authentication authentication) {
         String authorities = authentication.getAuthorities()
@@ -18,34 +24,29 @@ public class JwtProvider {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
-        String jwt = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .issuedAt(new Date())
                 .expiration(new Date(new Date().getTime() + 86400000)) // 24 hours
                 .claim("email", authentication.getName())
-                .claim("authorities", authorities)
-                .signWith(key)
-                .compact();
+                .claim("authorities", authorities);
+
+        // Carry the user's identity so requests can be served without a user lookup
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            builder.claim(UserPrincipal.CLAIM_USER_ID, principal.getId())
+                    .claim(UserPrincipal.CLAIM_ROLE, principal.getRole() != null ? principal.getRole().name() : null)
+                    .claim(UserPrincipal.CLAIM_BATCH, principal.getBatch())
+                    .claim(UserPrincipal.CLAIM_DEPARTMENT, principal.getDepartment());
+        }
+
+        String jwt = builder.signWith(key).compact();
         return jwt;
     }
 
     public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("email", String.class);
+        return jwtVerifier.verify(token).get("email", String.class);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return jwtVerifier.isValid(token);
     }
 } 
\ No newline at end of file
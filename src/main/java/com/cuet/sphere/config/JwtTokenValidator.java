@@ -1,8 +1,6 @@
 package com.cuet.sphere.config;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,12 +12,17 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
 
 public class JwtTokenValidator extends OncePerRequestFilter {
 
+    private final JwtVerifier jwtVerifier;
+
+    public JwtTokenValidator(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
@@ -45,12 +48,7 @@ public class JwtTokenValidator extends OncePerRequestFilter {
             System.out.println("JWT token found, validating...");
 
             try {
-                SecretKey key = Keys.hmacShaKeyFor(JwtConstant.SECRET_KEY.getBytes());
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(jwt)
-                        .getPayload();
+                Claims claims = jwtVerifier.verify(jwt);
 
                 String email = String.valueOf(claims.get("email"));
                 String authorities = String.valueOf(claims.get("authorities"));
@@ -65,8 +63,10 @@ public class JwtTokenValidator extends OncePerRequestFilter {
                     grantedAuthorities = AuthorityUtils.commaSeparatedStringToAuthorityList("ROLE_USER");
                 }
 
+                // Prefer the rich principal; older tokens only carry the email
+                UserPrincipal principal = UserPrincipal.fromClaims(claims);
                 Authentication authentication = new UsernamePasswordAuthenticationToken(
-                        email, null, grantedAuthorities);
+                        principal != null ? principal : email, null, grantedAuthorities);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
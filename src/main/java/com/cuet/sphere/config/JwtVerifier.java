@@ -0,0 +1,81 @@
+package com.cuet.sphere.config;
+
+import com.cuet.sphere.service.StatsProvider;
+import com.cuet.sphere.util.TtlCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Shared JWT signing key and verification pipeline.
+ * The key and parser are built once and are immutable, so a single instance is safe to use
+ * from every request thread. Verified tokens are cached until they expire (or the cache TTL
+ * runs out) so repeat requests from the same session skip signature verification.
+ */
+public class JwtVerifier implements StatsProvider {
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final TtlCache<String, Claims> verifiedTokens;
+
+    public JwtVerifier(String secret, int cacheMaxSize, long cacheTtlMillis) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.verifiedTokens = new TtlCache<>(cacheMaxSize, cacheTtlMillis);
+    }
+
+    public SecretKey getKey() {
+        return key;
+    }
+
+    /**
+     * Verify the token signature and expiry and return its claims.
+     * Throws a JwtException (or IllegalArgumentException) if the token is not valid.
+     */
+    public Claims verify(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        long deadline = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        verifiedTokens.put(token, claims, deadline);
+        return claims;
+    }
+
+    public boolean isValid(String token) {
+        try {
+            verify(token);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public long getCacheHits() {
+        return verifiedTokens.getHits();
+    }
+
+    public long getCacheMisses() {
+        return verifiedTokens.getMisses();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "jwtVerification";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return verifiedTokens.stats();
+    }
+}
@@ -1,14 +1,26 @@
 package com.cuet.sphere.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.net.URI;
+import java.time.Duration;
+
+// Only built for storage.backend=s3, so the local backend runs without AWS credentials
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 public class S3Config {
 
     @Value("${aws.access.key.id}")
@@ -20,13 +32,61 @@ public class S3Config {
     @Value("${aws.s3.region}")
     private String region;
 
+    // Set to point at an S3-compatible server such as MinIO or LocalStack; empty means AWS
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
     @Bean
     public S3Client s3Client() {
-        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
-        
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    // Non-blocking client for the upload endpoints; connections are shared by all in-flight requests
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(@Value("${aws.s3.async.max-connections:32}") int maxConnections) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(30)));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    private StaticCredentialsProvider credentialsProvider() {
+        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
+        return StaticCredentialsProvider.create(awsCredentials);
+    }
+
+    private S3Configuration serviceConfiguration() {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyleAccess)
                 .build();
     }
 }
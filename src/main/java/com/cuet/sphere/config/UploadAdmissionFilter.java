@@ -0,0 +1,103 @@
+package com.cuet.sphere.config;
+
+import com.cuet.sphere.exception.UploadRejectedException;
+import com.cuet.sphere.response.FileUploadResponse;
+import com.cuet.sphere.service.UploadAdmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Runs UploadAdmissionService for the upload endpoints after authentication but before the
+ * multipart body is parsed, so a refused upload costs neither heap nor temp disk. Refusals are
+ * 429 with Retry-After. The permit is released when the response is finished, which for the
+ * asynchronous endpoints is when the async request completes; an upload whose handler threw, or
+ * that ended in an error status, is released as failed so it isn't charged to the daily quota.
+ */
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> UPLOAD_PATHS = Set.of("/api/upload/file", "/api/upload/stream", "/api/upload/profile");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final UploadAdmissionService admissionService;
+
+    public UploadAdmissionFilter(UploadAdmissionService admissionService) {
+        this.admissionService = admissionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !UPLOAD_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            // Left to the authorization rules, which answer 401
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        UploadAdmissionService.Permit permit;
+        try {
+            permit = admissionService.admit(authentication.getName(), request.getContentLengthLong());
+        } catch (UploadRejectedException e) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            OBJECT_MAPPER.writeValue(response.getOutputStream(), FileUploadResponse.error(e.getMessage()));
+            return;
+        }
+
+        boolean async = false;
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        permit.release(response.getStatus() < 400);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        permit.release(false);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        permit.release(false);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                // The status is still 200 when the handler threw; the error page is written later
+                permit.release(completed && response.getStatus() < 400);
+            }
+        }
+    }
+}
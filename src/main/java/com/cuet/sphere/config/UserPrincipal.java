@@ -0,0 +1,106 @@
+package com.cuet.sphere.config;
+
+import com.cuet.sphere.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+
+/**
+ * Identity of the authenticated user as carried by the JWT.
+ * Set as the Authentication principal by JwtTokenValidator so controllers can read
+ * id, role, batch and department without loading the user from the database.
+ */
+public class UserPrincipal implements AuthenticatedPrincipal, Serializable {
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_BATCH = "batch";
+    public static final String CLAIM_DEPARTMENT = "dept";
+
+    private final Long id;
+    private final String email;
+    private final User.Role role;
+    private final String batch;
+    private final String department;
+
+    public UserPrincipal(Long id, String email, User.Role role, String batch, String department) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.batch = batch;
+        this.department = department;
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getBatch(), user.getDepartment());
+    }
+
+    /**
+     * Build a principal from token claims, or return null for tokens issued
+     * before the identity claims were added.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Object id = claims.get(CLAIM_USER_ID);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String batch = claims.get(CLAIM_BATCH, String.class);
+        String department = claims.get(CLAIM_DEPARTMENT, String.class);
+        String email = claims.get("email", String.class);
+        if (!(id instanceof Number) || role == null || batch == null || department == null || email == null) {
+            return null;
+        }
+        try {
+            return new UserPrincipal(((Number) id).longValue(), email, User.Role.valueOf(role), batch, department);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Detached, read-only view of the user holding only the identity fields above.
+     * Good enough for batch/department scoping on read paths; never save it.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setBatch(batch);
+        user.setDepartment(department);
+        return user;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public String getBatch() {
+        return batch;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public boolean isSystemAdmin() {
+        return User.Role.SYSTEM_ADMIN.equals(role);
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
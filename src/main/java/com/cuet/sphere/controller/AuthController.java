@@ -1,19 +1,21 @@
 package com.cuet.sphere.controller;
 
 import com.cuet.sphere.config.JwtProvider;
+import com.cuet.sphere.config.UserPrincipal;
+import com.cuet.sphere.event.UserChangedEvent;
+import com.cuet.sphere.exception.AuthenticationBusyException;
 import com.cuet.sphere.exception.UserException;
 import com.cuet.sphere.model.User;
 import com.cuet.sphere.model.User.Role;
 import com.cuet.sphere.util.StudentEmailParser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -22,8 +24,13 @@ import org.springframework.web.bind.annotation.RestController;
 import com.cuet.sphere.repository.UserRepository;
 import com.cuet.sphere.response.AuthResponse;
 import com.cuet.sphere.response.SigninRequest;
-import com.cuet.sphere.service.CustomUserDetailsService;
+import com.cuet.sphere.service.DepartmentRegistry;
+import com.cuet.sphere.service.PasswordHashingService;
+import com.cuet.sphere.service.UserCacheService;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -31,13 +38,15 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @Autowired
     private JwtProvider jwtProvider;
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private UserCacheService userCacheService;
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
 
     @GetMapping("/test")
     public ResponseEntity<String> testEndpoint() {
@@ -45,7 +54,7 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> createUserHandler(@RequestBody User user) throws UserException {
+    public CompletableFuture<ResponseEntity<AuthResponse>> createUserHandler(@RequestBody User user) throws UserException {
         try {
             System.out.println("=== SIGNUP REQUEST RECEIVED ===");
             System.out.println("Email: " + user.getEmail());
@@ -55,7 +64,6 @@ public class AuthController {
             
             String email = user.getEmail();
             String password = user.getPassword();
-            String hashedPassword = passwordEncoder.encode(password);
             String fullName = user.getFullName();
             Role role = user.getRole() != null ? user.getRole() : Role.STUDENT;
             String hall = user.getHall();
@@ -69,7 +77,7 @@ public class AuthController {
             System.out.println("Parsing student email to extract batch, department, and student ID...");
             StudentEmailParser.StudentInfo studentInfo;
             try {
-                studentInfo = StudentEmailParser.parseStudentEmail(email);
+                studentInfo = StudentEmailParser.parseStudentEmail(email, departmentRegistry);
                 System.out.println("Parsed student info - Batch: " + studentInfo.getBatch() + 
                                 ", Department: " + studentInfo.getDepartment() + 
                                 ", Student ID: " + studentInfo.getStudentId());
@@ -84,40 +92,42 @@ public class AuthController {
                 throw new UserException("Email already exists");
             }
 
-            System.out.println("Creating new user...");
-            User createdUser = new User();
-            createdUser.setEmail(email);
-            createdUser.setPassword(hashedPassword);
-            createdUser.setFullName(fullName);
-            createdUser.setRole(role);
-            createdUser.setHall(hall);
-            createdUser.setBio(bio);
-            
-            // Set the parsed values from email
-            createdUser.setBatch(studentInfo.getBatch());
-            createdUser.setDepartment(studentInfo.getDepartment());
-            createdUser.setStudentId(studentInfo.getStudentId());
-            
-            // Set timestamps
-            LocalDateTime now = LocalDateTime.now();
-            createdUser.setCreatedAt(now);
-            createdUser.setUpdatedAt(now);
-
-            System.out.println("Saving user to database...");
-            User savedUser = userRepository.save(createdUser);
-            System.out.println("User saved with ID: " + savedUser.getId());
-
-            System.out.println("Creating authentication token...");
-            // Use the raw password for authentication, not the hashed one
-            Authentication authentication = new UsernamePasswordAuthenticationToken(email, password);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            System.out.println("Generating JWT token...");
-            String token = jwtProvider.generateToken(authentication);
-            AuthResponse authResponse = new AuthResponse(token, true, "User created successfully", email, fullName, role.name());
-
-            System.out.println("=== SIGNUP SUCCESSFUL ===");
-            return new ResponseEntity<>(authResponse, HttpStatus.CREATED);
+            // Hash only once the request is known to be valid; the request completes when the hash is ready
+            return passwordHashingService.encode(password)
+                    .thenApply(hashedPassword -> {
+                        System.out.println("Creating new user...");
+                        User createdUser = new User();
+                        createdUser.setEmail(email);
+                        createdUser.setPassword(hashedPassword);
+                        createdUser.setFullName(fullName);
+                        createdUser.setRole(role);
+                        createdUser.setHall(hall);
+                        createdUser.setBio(bio);
+
+                        // Set the parsed values from email
+                        createdUser.setBatch(studentInfo.getBatch());
+                        createdUser.setDepartment(studentInfo.getDepartment());
+                        createdUser.setStudentId(studentInfo.getStudentId());
+
+                        // Set timestamps
+                        LocalDateTime now = LocalDateTime.now();
+                        createdUser.setCreatedAt(now);
+                        createdUser.setUpdatedAt(now);
+
+                        System.out.println("Saving user to database...");
+                        User savedUser = userRepository.save(createdUser);
+                        System.out.println("User saved with ID: " + savedUser.getId());
+                        eventPublisher.publishEvent(new UserChangedEvent(savedUser));
+
+                        System.out.println("Generating JWT token...");
+                        Authentication authentication = new UsernamePasswordAuthenticationToken(UserPrincipal.from(savedUser), password);
+                        String token = jwtProvider.generateToken(authentication);
+                        AuthResponse authResponse = new AuthResponse(token, true, "User created successfully", email, fullName, role.name());
+
+                        System.out.println("=== SIGNUP SUCCESSFUL ===");
+                        return new ResponseEntity<>(authResponse, HttpStatus.CREATED);
+                    })
+                    .exceptionally(e -> busyOrRethrow(e, email));
         } catch (Exception e) {
             System.err.println("=== SIGNUP ERROR ===");
             System.err.println("Error: " + e.getMessage());
@@ -127,7 +137,7 @@ public class AuthController {
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> signinHandler(@RequestBody SigninRequest signinRequest) throws UserException {
+    public CompletableFuture<ResponseEntity<AuthResponse>> signinHandler(@RequestBody SigninRequest signinRequest) throws UserException {
         try {
             System.out.println("=== SIGNIN REQUEST RECEIVED ===");
             System.out.println("Email: " + signinRequest.getEmail());
@@ -139,83 +149,38 @@ public class AuthController {
                 throw new UserException("Email and password are required");
             }
 
-            // FIRST: Let's manually check if the user exists and password matches
-            System.out.println("=== MANUAL VERIFICATION (FOR DEBUG) ===");
-            User dbUser = userRepository.findUserByEmail(email);
+            // Single pass: load the user once, verify the hash once, mint the token
+            User dbUser = userCacheService.findUserByEmail(email);
             if (dbUser == null) {
                 System.out.println("ERROR: User not found in database");
                 throw new UserException("User not found");
             }
 
-            System.out.println("User found in database:");
-            System.out.println("- Email: " + dbUser.getEmail());
-            System.out.println("- Name: " + dbUser.getFullName());
-            System.out.println("- Password is null: " + (dbUser.getPassword() == null));
-            System.out.println("- Password length: " + (dbUser.getPassword() != null ? dbUser.getPassword().length() : 0));
-
-            // Test password matching manually
-            boolean passwordMatches = passwordEncoder.matches(password, dbUser.getPassword());
-            System.out.println("- Raw password: '" + password + "'");
-            System.out.println("- Stored hash: " + (dbUser.getPassword() != null ? dbUser.getPassword().substring(0, Math.min(20, dbUser.getPassword().length())) + "..." : "null"));
-            System.out.println("- Password matches: " + passwordMatches);
-
-            if (!passwordMatches) {
-                System.out.println("ERROR: Password verification failed at manual check");
-                throw new UserException("Invalid password - manual check failed");
-            }
+            return passwordHashingService.matches(password, dbUser.getPassword())
+                    .thenApply(matches -> {
+                        if (!matches) {
+                            System.out.println("ERROR: Password verification failed");
+                            throw new CompletionException(new UserException("Invalid email or password"));
+                        }
 
-            System.out.println("Manual verification successful, proceeding with Spring Security authentication...");
+                        // Bring the stored hash up to the current BCrypt cost in the background
+                        passwordHashingService.rehashIfNeeded(dbUser, password);
 
-            // SECOND: Try Spring Security authentication
-            System.out.println("=== SPRING SECURITY AUTHENTICATION ===");
-            System.out.println("Creating UsernamePasswordAuthenticationToken...");
+                        String role = dbUser.getRole() != null ? dbUser.getRole().name() : "STUDENT";
+                        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                                UserPrincipal.from(dbUser), null, authorities);
 
-            try {
-                // This will trigger CustomUserDetailsService.loadUserByUsername()
-                Authentication authentication = authenticationManager.authenticate(
-                        new UsernamePasswordAuthenticationToken(email, password)
-                );
-
-                System.out.println("Authentication successful!");
-                System.out.println("- Principal: " + authentication.getPrincipal());
-                System.out.println("- Authorities: " + authentication.getAuthorities());
-                System.out.println("- Is authenticated: " + authentication.isAuthenticated());
-
-                // Set the authentication in SecurityContext
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                System.out.println("Generating JWT token...");
-                String token = jwtProvider.generateToken(authentication);
-
-                String fullName = dbUser.getFullName();
-                String role = dbUser.getRole() != null ? dbUser.getRole().name() : "STUDENT";
-                String batch = dbUser.getBatch();
-                String department = dbUser.getDepartment();
-                String bio = dbUser.getBio();
-                String hall = dbUser.getHall();
-                String studentId = dbUser.getStudentId();
-
-                AuthResponse authResponse = new AuthResponse(token, true, "Signin successful", email, fullName, role, 
-                                                          batch, department, bio, hall, studentId);
-
-                System.out.println("=== SIGNIN SUCCESSFUL ===");
-                return new ResponseEntity<>(authResponse, HttpStatus.OK);
-
-            } catch (Exception springAuthException) {
-                System.out.println("=== SPRING SECURITY AUTHENTICATION FAILED ===");
-                System.out.println("Exception type: " + springAuthException.getClass().getName());
-                System.out.println("Exception message: " + springAuthException.getMessage());
-                springAuthException.printStackTrace();
-
-                // Since manual verification worked but Spring Security failed,
-                // there's likely an issue with CustomUserDetailsService
-                throw new UserException("Authentication failed: " + springAuthException.getMessage());
-            }
+                        System.out.println("Generating JWT token...");
+                        String token = jwtProvider.generateToken(authentication);
 
-        } catch (BadCredentialsException e) {
-            System.err.println("=== SIGNIN ERROR: Bad Credentials ===");
-            System.err.println("Error: " + e.getMessage());
-            throw new UserException("Invalid email or password");
+                        AuthResponse authResponse = new AuthResponse(token, true, "Signin successful", email, dbUser.getFullName(), role,
+                                dbUser.getBatch(), dbUser.getDepartment(), dbUser.getBio(), dbUser.getHall(), dbUser.getStudentId());
+
+                        System.out.println("=== SIGNIN SUCCESSFUL ===");
+                        return new ResponseEntity<>(authResponse, HttpStatus.OK);
+                    })
+                    .exceptionally(e -> busyOrRethrow(e, email));
         } catch (Exception e) {
             System.err.println("=== SIGNIN ERROR ===");
             System.err.println("Error: " + e.getMessage());
@@ -223,4 +188,17 @@ public class AuthController {
             throw e;
         }
     }
+
+    // A full or slow hashing pool is 503 with Retry-After; anything else fails the request as before
+    private ResponseEntity<AuthResponse> busyOrRethrow(Throwable e, String email) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof AuthenticationBusyException) {
+            AuthenticationBusyException busy = (AuthenticationBusyException) cause;
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", String.valueOf(busy.getRetryAfterSeconds()))
+                    .body(new AuthResponse(null, false, busy.getMessage(), email, null, null));
+        }
+        System.err.println("Error: " + cause.getMessage());
+        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(cause);
+    }
 }
@@ -1,86 +1,213 @@
 package com.cuet.sphere.controller;
 
+import com.cuet.sphere.exception.StorageBusyException;
+import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.model.StoredFile;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.service.ContentAddressedStore;
+import com.cuet.sphere.service.CurrentUserService;
+import com.cuet.sphere.service.ImageVariantService;
+import com.cuet.sphere.service.PresignedUploadService;
 import com.cuet.sphere.service.S3Service;
 import com.cuet.sphere.response.FileUploadResponse;
+import com.cuet.sphere.response.PresignedUploadCompleteRequest;
+import com.cuet.sphere.response.PresignedUploadRequest;
+import com.cuet.sphere.response.PresignedUploadResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/upload")
 @CrossOrigin(origins = "*")
 public class FileUploadController {
 
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+    private static final String PRESIGNED_UNAVAILABLE = "Presigned URLs are only available with S3 storage";
+
     @Autowired
     private S3Service s3Service;
 
+    @Autowired
+    private ContentAddressedStore contentStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    // Only present with the S3 backend
+    @Autowired(required = false)
+    private PresignedUploadService presignedUploadService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @PostMapping("/file")
-    public ResponseEntity<FileUploadResponse> uploadFile(@RequestParam("file") MultipartFile file) {
+    public CompletableFuture<ResponseEntity<FileUploadResponse>> uploadFile(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("File is empty")));
+        }
+
+        // Check file size (limit to 10MB)
+        if (file.getSize() > MAX_FILE_SIZE) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("File size exceeds 10MB limit")));
+        }
+
+        // Check file type (allow common document and image types)
+        String contentType = file.getContentType();
+        if (contentType == null || !isAllowedFileType(contentType)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("File type not allowed. Allowed types: PDF, DOC, DOCX, JPG, PNG, GIF")));
+        }
+
+        User currentUser;
         try {
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(FileUploadResponse.error("File is empty"));
-            }
+            currentUser = currentUserService.getCurrentUser();
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body(FileUploadResponse.error("Authentication failed: " + e.getMessage())));
+        }
 
-            // Check file size (limit to 10MB)
-            if (file.getSize() > 10 * 1024 * 1024) {
+        // The servlet thread is released here; the response is written when S3 answers
+        CompletableFuture<String> upload = contentStore.isEnabled()
+                ? contentStore.storeAttachment(file, currentUser)
+                : s3Service.uploadAttachment(file);
+        return upload
+                .thenApply(fileUrl -> ResponseEntity.ok(FileUploadResponse.success(fileUrl)))
+                .exceptionally(e -> uploadFailed("Failed to upload file: ", e));
+    }
+
+    // Raw request body (not multipart) streamed to S3 in parts as it arrives; Content-Type is the file's type
+    @PostMapping("/stream")
+    public ResponseEntity<FileUploadResponse> streamFile(HttpServletRequest request,
+                                                         @RequestParam("filename") String filename) {
+        try {
+            // Reject early when the client declares the size; otherwise the limit is enforced while streaming
+            if (request.getContentLengthLong() > MAX_FILE_SIZE) {
                 return ResponseEntity.badRequest().body(FileUploadResponse.error("File size exceeds 10MB limit"));
             }
+            if (request.getContentLengthLong() == 0) {
+                return ResponseEntity.badRequest().body(FileUploadResponse.error("File is empty"));
+            }
 
-            // Check file type (allow common document and image types)
-            String contentType = file.getContentType();
+            String contentType = request.getContentType();
             if (contentType == null || !isAllowedFileType(contentType)) {
                 return ResponseEntity.badRequest().body(FileUploadResponse.error("File type not allowed. Allowed types: PDF, DOC, DOCX, JPG, PNG, GIF"));
             }
 
-            String fileUrl = s3Service.uploadFile(file);
+            String fileUrl = contentStore.isEnabled()
+                    ? contentStore.storeStream(request.getInputStream(), filename, contentType, MAX_FILE_SIZE, currentUserService.getCurrentUser())
+                    : s3Service.uploadStream(request.getInputStream(), filename, contentType, MAX_FILE_SIZE);
             return ResponseEntity.ok(FileUploadResponse.success(fileUrl));
-            
+
+        } catch (UserException e) {
+            return ResponseEntity.badRequest().body(FileUploadResponse.error(e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body(FileUploadResponse.error("Failed to upload file: " + e.getMessage()));
         }
     }
 
     @PostMapping("/profile")
-    public ResponseEntity<FileUploadResponse> uploadProfilePicture(
+    public CompletableFuture<ResponseEntity<FileUploadResponse>> uploadProfilePicture(
             @RequestParam("file") MultipartFile file,
             @RequestParam("type") String type) {
-        try {
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(FileUploadResponse.error("File is empty"));
-            }
+        if (file.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("File is empty")));
+        }
 
-            // Check file size (limit to 5MB for profile pictures)
-            if (file.getSize() > 5 * 1024 * 1024) {
-                return ResponseEntity.badRequest().body(FileUploadResponse.error("File size exceeds 5MB limit"));
-            }
+        // Check file size (limit to 5MB for profile pictures)
+        if (file.getSize() > 5 * 1024 * 1024) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("File size exceeds 5MB limit")));
+        }
 
-            // Check file type (only images for profile pictures)
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                return ResponseEntity.badRequest().body(FileUploadResponse.error("Only image files are allowed for profile pictures"));
-            }
+        // Check file type (only images for profile pictures)
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(FileUploadResponse.error("Only image files are allowed for profile pictures")));
+        }
+
+        // Generate a unique filename based on type and timestamp
+        String baseName = type + "_" + System.currentTimeMillis();
 
-            // Generate a unique filename based on type and timestamp
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null ? 
-                originalFilename.substring(originalFilename.lastIndexOf(".")) : ".jpg";
-            String filename = type + "_" + System.currentTimeMillis() + fileExtension;
+        // Only re-encoded variants are stored, so the upload's EXIF and GPS data never become public
+        return imageVariantService.process(file, baseName)
+                .thenApply(variants -> ResponseEntity.ok(FileUploadResponse.success(variants.get("full"), variants)))
+                .exceptionally(e -> uploadFailed("Failed to upload profile picture: ", e));
+    }
 
-            String fileUrl = s3Service.uploadFile(file, filename);
+    // Presigned URL for the client to PUT the file straight to S3
+    @PostMapping("/presigned")
+    public ResponseEntity<?> createPresignedUpload(@RequestBody PresignedUploadRequest request) {
+        if (presignedUploadService == null) {
+            return ResponseEntity.badRequest().body(error(PRESIGNED_UNAVAILABLE));
+        }
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            PresignedUploadResponse response = presignedUploadService.createUpload(request, currentUser);
+            return ResponseEntity.ok(response);
+        } catch (UserException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(error("Authentication failed: " + e.getMessage()));
+        }
+    }
+
+    // Called once the presigned PUT has succeeded; records the file and returns its URL
+    @PostMapping("/presigned/complete")
+    public ResponseEntity<FileUploadResponse> completePresignedUpload(@RequestBody PresignedUploadCompleteRequest request) {
+        if (presignedUploadService == null) {
+            return ResponseEntity.badRequest().body(FileUploadResponse.error(PRESIGNED_UNAVAILABLE));
+        }
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            String fileUrl = presignedUploadService.completeUpload(request.getObjectKey(), currentUser);
             return ResponseEntity.ok(FileUploadResponse.success(fileUrl));
-            
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().body(FileUploadResponse.error("Failed to upload profile picture: " + e.getMessage()));
+        } catch (UserException e) {
+            return ResponseEntity.badRequest().body(FileUploadResponse.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(FileUploadResponse.error("Authentication failed: " + e.getMessage()));
+        }
+    }
+
+    // Short-lived download URL; file is an object key or the URL returned at upload
+    @GetMapping("/presigned/download")
+    public ResponseEntity<?> createPresignedDownload(@RequestParam("file") String file) {
+        if (presignedUploadService == null) {
+            return ResponseEntity.badRequest().body(error(PRESIGNED_UNAVAILABLE));
+        }
+        try {
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            return ResponseEntity.ok(presignedUploadService.createDownload(file, currentUser));
+        } catch (UserException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(error("Authentication failed: " + e.getMessage()));
         }
     }
 
+    private ResponseEntity<FileUploadResponse> uploadFailed(String prefix, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof StorageBusyException) {
+            return ResponseEntity.status(503).body(FileUploadResponse.error(cause.getMessage()));
+        }
+        if (cause instanceof UserException) {
+            return ResponseEntity.badRequest().body(FileUploadResponse.error(cause.getMessage()));
+        }
+        return ResponseEntity.internalServerError().body(FileUploadResponse.error(prefix + cause.getMessage()));
+    }
+
+    private Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+
     private boolean isAllowedFileType(String contentType) {
-        return contentType.startsWith("application/pdf") ||
-               contentType.equals("application/msword") ||
-               contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
-               contentType.startsWith("image/");
+        return StoredFile.Purpose.ATTACHMENT.allows(contentType);
     }
 }
@@ -0,0 +1,142 @@
+package com.cuet.sphere.controller;
+
+import com.cuet.sphere.service.LocalStorageBackend;
+import com.cuet.sphere.util.ByteRange;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves files of the local storage backend, standing in for the public S3 bucket. Supports single
+ * byte ranges, ETag / If-None-Match revalidation and If-Range. Bodies go out with FileChannel.transferTo,
+ * or with Tomcat's sendfile when the connector offers it, so file bytes are not copied through the heap.
+ */
+@RestController
+@RequestMapping(LocalFileController.PATH)
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileController {
+
+    static final String PATH = "/public/files";
+
+    // Below this Tomcat's own default servlet doesn't bother with sendfile either
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final String CONTENT_ADDRESSED_PREFIX = "notices/sha256/";
+
+    @Autowired
+    private LocalStorageBackend storage;
+
+    @GetMapping("/**")
+    public void serveFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = request.getRequestURI();
+        int keyStart = request.getContextPath().length() + PATH.length() + 1;
+        String key = uri.length() > keyStart ? UriUtils.decode(uri.substring(keyStart), StandardCharsets.UTF_8) : null;
+        Path path = storage.resolve(key);
+        if (path == null || !Files.isRegularFile(path)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            String etag = etagFor(key, size, lastModified);
+
+            response.setHeader("ETag", etag);
+            response.setHeader("Accept-Ranges", "bytes");
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            response.setDateHeader("Last-Modified", lastModified);
+            // Content-addressed objects never change under their key
+            response.setHeader("Cache-Control", key.startsWith(CONTENT_ADDRESSED_PREFIX)
+                    ? "public, max-age=31536000, immutable" : "public, max-age=3600");
+
+            if (matchesAny(request.getHeader("If-None-Match"), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            // A stale If-Range means the client's partial copy is out of date, so it gets the whole file
+            String ifRange = request.getHeader("If-Range");
+            ByteRange range = ifRange == null || ifRange.equals(etag)
+                    ? ByteRange.parse(request.getHeader("Range"), size)
+                    : null;
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setHeader("Content-Range", "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+
+            long start = 0;
+            long length = size;
+            if (range != null) {
+                start = range.getStart();
+                length = range.length();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + range.getStart() + "-" + range.getEnd() + "/" + size);
+            }
+            response.setContentType(MediaTypeFactory.getMediaType(path.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setContentLengthLong(length);
+
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return;
+            }
+
+            // Tomcat writes the file straight from the page cache to the socket after we return
+            if (length >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+                request.setAttribute("org.apache.tomcat.sendfile.filename", path.toFile().getCanonicalPath());
+                request.setAttribute("org.apache.tomcat.sendfile.start", start);
+                request.setAttribute("org.apache.tomcat.sendfile.end", start + length);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + length;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    static String etagFor(String key, long size, long lastModified) {
+        if (key.startsWith(CONTENT_ADDRESSED_PREFIX)) {
+            String name = key.substring(CONTENT_ADDRESSED_PREFIX.length());
+            int dot = name.indexOf('.');
+            return "\"" + (dot >= 0 ? name.substring(0, dot) : name) + "\"";
+        }
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so W/"x" matches "x"
+    private static boolean matchesAny(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
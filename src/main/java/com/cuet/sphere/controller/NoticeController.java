@@ -2,15 +2,16 @@ package com.cuet.sphere.controller;
 
 import com.cuet.sphere.model.User;
 import com.cuet.sphere.model.Notice;
+import com.cuet.sphere.response.NoticeFeedResponse;
+import com.cuet.sphere.response.NoticeSearchResponse;
 import com.cuet.sphere.response.NoticeRequest;
 import com.cuet.sphere.response.NoticeResponse;
 import com.cuet.sphere.service.NoticeService;
 import com.cuet.sphere.exception.UserException;
-import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.service.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -33,7 +34,7 @@ public class NoticeController {
     private NoticeService noticeService;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
 
     @Autowired
     private NoticeRepository noticeRepository;
@@ -46,7 +47,7 @@ public class NoticeController {
             logger.info("Attachment: {}", noticeRequest.getAttachment());
             logger.info("Title: {}", noticeRequest.getTitle());
             
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             logger.info("Current user: {} ({})", currentUser.getFullName(), currentUser.getEmail());
             logger.info("User role: {}", currentUser.getRole());
             logger.info("User batch: {}", currentUser.getBatch());
@@ -90,7 +91,7 @@ public class NoticeController {
         @RequestParam(defaultValue = "10") int size,
         Authentication authentication) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             Page<NoticeResponse> notices = noticeService.getNoticesByUser(currentUser, page, size);
             return ResponseEntity.ok(notices);
         } catch (Exception e) {
@@ -100,10 +101,51 @@ public class NoticeController {
         }
     }
     
+    // Cursor-paginated feed; prefer this over the page endpoint for deep scrolling
+    @GetMapping("/feed")
+    public ResponseEntity<?> getNoticeFeed(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size) {
+        try {
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            NoticeFeedResponse feed = noticeService.getNoticeFeed(currentUser, cursor, size);
+            return ResponseEntity.ok(feed);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Failed to get notices: " + e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+    
+    // Search titles and messages; page with the returned nextCursor
+    @GetMapping("/search")
+    public ResponseEntity<?> searchNotices(
+        @RequestParam String q,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size) {
+        try {
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            NoticeSearchResponse results = noticeService.searchNotices(currentUser, q, cursor, size);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Failed to search notices: " + e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+    
     @GetMapping("/type/{noticeType}")
     public ResponseEntity<List<NoticeResponse>> getNoticesByType(@PathVariable String noticeType) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             Notice.NoticeType type = Notice.NoticeType.valueOf(noticeType.toUpperCase());
             List<NoticeResponse> notices = noticeService.getNoticesByUserAndType(currentUser, type);
             return ResponseEntity.ok(notices);
@@ -115,7 +157,7 @@ public class NoticeController {
     @GetMapping("/my")
     public ResponseEntity<List<NoticeResponse>> getMyNotices() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             List<NoticeResponse> notices = noticeService.getNoticesBySender(currentUser);
             return ResponseEntity.ok(notices);
         } catch (UserException e) {
@@ -126,7 +168,7 @@ public class NoticeController {
     @GetMapping("/group-members")
     public ResponseEntity<?> getGroupMembers() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             List<Map<String, Object>> groupMembers = noticeService.getGroupMembers(currentUser);
             return ResponseEntity.ok(groupMembers);
         } catch (Exception e) {
@@ -139,7 +181,7 @@ public class NoticeController {
     @GetMapping("/{noticeId}")
     public ResponseEntity<NoticeResponse> getNoticeById(@PathVariable Long noticeId) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             NoticeResponse notice = noticeService.getNoticeById(noticeId, currentUser);
             return ResponseEntity.ok(notice);
         } catch (UserException e) {
@@ -150,7 +192,7 @@ public class NoticeController {
     @DeleteMapping("/{noticeId}")
     public ResponseEntity<?> deleteNotice(@PathVariable Long noticeId) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             noticeService.deleteNotice(noticeId, currentUser);
             
             Map<String, Object> response = new HashMap<>();
@@ -236,24 +278,4 @@ public class NoticeController {
             return ResponseEntity.status(500).body(response);
         }
     }
-    
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        logger.info("Authentication object: {}", authentication);
-        
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            logger.info("Authenticated user email: {}", email);
-            User user = userRepository.findUserByEmail(email);
-            if (user != null) {
-                logger.info("Found user: {} ({})", user.getFullName(), user.getEmail());
-                return user;
-            } else {
-                logger.error("User not found in database for email: {}", email);
-            }
-        } else {
-            logger.error("Authentication failed or user not authenticated");
-        }
-        throw new RuntimeException("User not authenticated");
-    }
 }
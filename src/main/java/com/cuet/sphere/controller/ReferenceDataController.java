@@ -0,0 +1,52 @@
+package com.cuet.sphere.controller;
+
+import com.cuet.sphere.service.ReferenceDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@CrossOrigin(origins = "*")
+public class ReferenceDataController {
+    
+    @Autowired
+    private ReferenceDataService referenceDataService;
+    
+    // Departments, semesters and courses, served from memory.
+    // Clients should send the last ETag back as If-None-Match to get a 304 when nothing changed.
+    @GetMapping
+    public ResponseEntity<byte[]> getCatalogue(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        ReferenceDataService.Snapshot snapshot = referenceDataService.getSnapshot();
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        
+        if (ifNoneMatch != null && matches(ifNoneMatch, snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.getEtag())
+                .cacheControl(cacheControl)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(snapshot.getEtag())
+            .cacheControl(cacheControl)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.getCatalogueJson());
+    }
+    
+    private boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,13 +4,12 @@ import com.cuet.sphere.model.User;
 import com.cuet.sphere.model.Resource;
 import com.cuet.sphere.response.ResourceRequest;
 import com.cuet.sphere.response.ResourceResponse;
+import com.cuet.sphere.response.ResourceSearchResponse;
 import com.cuet.sphere.service.ResourceService;
 import com.cuet.sphere.exception.UserException;
-import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.service.CurrentUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -31,14 +30,14 @@ public class ResourceController {
     private ResourceService resourceService;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
     
     // Create resource (CR only)
     @PostMapping
     public ResponseEntity<?> createResource(@Valid @RequestBody ResourceRequest resourceRequest) {
         try {
             logger.info("Creating resource with title: {}", resourceRequest.getTitle());
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             ResourceResponse resource = resourceService.createResource(resourceRequest, currentUser);
             logger.info("Resource created successfully with ID: {}", resource.getResourceId());
             return ResponseEntity.ok(resource);
@@ -65,7 +64,7 @@ public class ResourceController {
     public ResponseEntity<?> updateResource(@PathVariable Long resourceId, @Valid @RequestBody ResourceRequest resourceRequest) {
         try {
             logger.info("Updating resource with ID: {}", resourceId);
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             ResourceResponse resource = resourceService.updateResource(resourceId, resourceRequest, currentUser);
             logger.info("Resource updated successfully");
             return ResponseEntity.ok(resource);
@@ -92,7 +91,7 @@ public class ResourceController {
     public ResponseEntity<?> deleteResource(@PathVariable Long resourceId) {
         try {
             logger.info("Deleting resource with ID: {}", resourceId);
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             resourceService.deleteResource(resourceId, currentUser);
             logger.info("Resource deleted successfully");
             return ResponseEntity.ok().build();
@@ -118,7 +117,7 @@ public class ResourceController {
     @GetMapping
     public ResponseEntity<List<ResourceResponse>> getResources() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             List<ResourceResponse> resources = resourceService.getResourcesByUser(currentUser);
             return ResponseEntity.ok(resources);
         } catch (RuntimeException e) {
@@ -131,7 +130,7 @@ public class ResourceController {
     @GetMapping("/course/{courseCode}")
     public ResponseEntity<List<ResourceResponse>> getResourcesByCourse(@PathVariable String courseCode) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             List<ResourceResponse> resources = resourceService.getResourcesByUserAndCourse(currentUser, courseCode);
             return ResponseEntity.ok(resources);
         } catch (RuntimeException e) {
@@ -144,7 +143,7 @@ public class ResourceController {
     @GetMapping("/course/{courseCode}/semester/{semester}")
     public ResponseEntity<List<ResourceResponse>> getResourcesByCourseAndSemester(@PathVariable String courseCode, @PathVariable String semester) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             List<ResourceResponse> resources = resourceService.getResourcesByUserAndCourseAndSemester(currentUser, courseCode, semester);
             return ResponseEntity.ok(resources);
         } catch (RuntimeException e) {
@@ -157,7 +156,7 @@ public class ResourceController {
     @GetMapping("/type/{resourceType}")
     public ResponseEntity<List<ResourceResponse>> getResourcesByType(@PathVariable String resourceType) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             Resource.ResourceType type = Resource.ResourceType.valueOf(resourceType.toUpperCase());
             List<ResourceResponse> resources = resourceService.getResourcesByUserAndType(currentUser, type);
             return ResponseEntity.ok(resources);
@@ -173,7 +172,7 @@ public class ResourceController {
     @GetMapping("/my")
     public ResponseEntity<?> getMyResources() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             List<ResourceResponse> resources = resourceService.getResourcesByUploader(currentUser);
             return ResponseEntity.ok(resources);
         } catch (UserException e) {
@@ -193,7 +192,7 @@ public class ResourceController {
     @GetMapping("/{resourceId}")
     public ResponseEntity<?> getResourceById(@PathVariable Long resourceId) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUserSnapshot();
             ResourceResponse resource = resourceService.getResourceById(resourceId, currentUser);
             return ResponseEntity.ok(resource);
         } catch (UserException e) {
@@ -209,36 +208,19 @@ public class ResourceController {
         }
     }
     
-    // Search resources by title
+    // Ranked search over title, description, course and type
     @GetMapping("/search")
-    public ResponseEntity<List<ResourceResponse>> searchResources(@RequestParam String q) {
+    public ResponseEntity<ResourceSearchResponse> searchResources(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            User currentUser = getCurrentUser();
-            List<ResourceResponse> resources = resourceService.searchResources(currentUser, q);
-            return ResponseEntity.ok(resources);
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            ResourceSearchResponse results = resourceService.searchResources(currentUser, q, page, size);
+            return ResponseEntity.ok(results);
         } catch (RuntimeException e) {
             logger.error("RuntimeException while searching resources: {}", e.getMessage());
             return ResponseEntity.status(401).build();
         }
     }
-    
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        logger.info("Authentication object: {}", authentication);
-        
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            logger.info("Authenticated user email: {}", email);
-            User user = userRepository.findUserByEmail(email);
-            if (user != null) {
-                logger.info("Found user: {} ({})", user.getFullName(), user.getEmail());
-                return user;
-            } else {
-                logger.error("User not found in database for email: {}", email);
-            }
-        } else {
-            logger.error("Authentication failed or user not authenticated");
-        }
-        throw new RuntimeException("User not authenticated");
-    }
 }
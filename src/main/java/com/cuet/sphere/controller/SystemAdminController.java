@@ -5,14 +5,19 @@ import com.cuet.sphere.response.CrAssignmentRequest;
 import com.cuet.sphere.response.CrAssignmentResponse;
 import com.cuet.sphere.service.SystemAdminService;
 import com.cuet.sphere.exception.UserException;
-import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.service.CurrentUserService;
+import com.cuet.sphere.service.ReferenceDataService;
+import com.cuet.sphere.service.DepartmentRegistry;
+import com.cuet.sphere.service.OrphanCollector;
+import com.cuet.sphere.service.StatsProvider;
+import com.cuet.sphere.response.OrphanCollectionReport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -23,12 +28,25 @@ public class SystemAdminController {
     private SystemAdminService systemAdminService;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
     
+    @Autowired
+    private ReferenceDataService referenceDataService;
+    
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+    
+    @Autowired
+    private OrphanCollector orphanCollector;
+
+    // Every component that reports counters; each appears under its own name in cache-stats
+    @Autowired
+    private List<StatsProvider> statsProviders;
+
     @PostMapping("/assign-cr")
     public ResponseEntity<CrAssignmentResponse> assignCrRole(@RequestBody CrAssignmentRequest request) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             CrAssignmentResponse response = systemAdminService.assignCrRole(request, currentUser);
             return ResponseEntity.ok(response);
         } catch (UserException e) {
@@ -42,7 +60,7 @@ public class SystemAdminController {
     @DeleteMapping("/remove-cr/{userEmail}")
     public ResponseEntity<CrAssignmentResponse> removeCrRole(@PathVariable String userEmail) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             CrAssignmentResponse response = systemAdminService.removeCrRole(userEmail, currentUser);
             return ResponseEntity.ok(response);
         } catch (UserException e) {
@@ -56,7 +74,7 @@ public class SystemAdminController {
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             List<User> users = systemAdminService.getAllUsers(currentUser);
             return ResponseEntity.ok(users);
         } catch (UserException e) {
@@ -69,7 +87,7 @@ public class SystemAdminController {
             @PathVariable String department, 
             @PathVariable String batch) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             List<User> users = systemAdminService.getUsersByDepartmentAndBatch(department, batch, currentUser);
             return ResponseEntity.ok(users);
         } catch (UserException e) {
@@ -80,7 +98,7 @@ public class SystemAdminController {
     @GetMapping("/users/{email}")
     public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             User user = systemAdminService.getUserByEmail(email, currentUser);
             return ResponseEntity.ok(user);
         } catch (UserException e) {
@@ -91,7 +109,7 @@ public class SystemAdminController {
     @GetMapping("/system-info")
     public ResponseEntity<SystemInfo> getSystemInfo() {
         try {
-            User currentUser = getCurrentUser();
+            User currentUser = currentUserService.getCurrentUser();
             if (!systemAdminService.isSystemAdmin(currentUser)) {
                 return ResponseEntity.status(403).build();
             }
@@ -106,18 +124,90 @@ public class SystemAdminController {
         }
     }
     
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            String email = authentication.getName();
-            User user = userRepository.findUserByEmail(email);
-            if (user != null) {
-                return user;
+    // Department codes, ids and names as the registry currently knows them
+    @GetMapping("/departments")
+    public ResponseEntity<List<Map<String, Object>>> getDepartments() {
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            List<Map<String, Object>> departments = systemAdminService.getDepartments(currentUser);
+            return ResponseEntity.ok(departments);
+        } catch (UserException e) {
+            return ResponseEntity.status(403).build();
+        }
+    }
+    
+    // Reload courses, semesters and departments after editing them in the database
+    @PostMapping("/reference-data/refresh")
+    public ResponseEntity<Map<String, Object>> refreshReferenceData() {
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            if (!systemAdminService.isSystemAdmin(currentUser)) {
+                return ResponseEntity.status(403).build();
             }
+            
+            referenceDataService.refresh();
+            departmentRegistry.refresh();
+            return ResponseEntity.ok(referenceDataService.getStats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).build();
         }
-        throw new RuntimeException("User not authenticated");
     }
     
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            if (!systemAdminService.isSystemAdmin(currentUser)) {
+                return ResponseEntity.status(403).build();
+            }
+            
+            Map<String, Object> stats = new HashMap<>();
+            for (StatsProvider provider : statsProviders) {
+                stats.put(provider.getStatsName(), provider.getStats());
+            }
+            
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Start an orphaned file collection now; with dryRun=true it only reports what it would delete
+    @PostMapping("/storage/gc")
+    public ResponseEntity<Map<String, Object>> startOrphanCollection(@RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            if (!systemAdminService.isSystemAdmin(currentUser)) {
+                return ResponseEntity.status(403).build();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            if (!orphanCollector.startRun(dryRun)) {
+                response.put("error", "A collection is already running");
+                return ResponseEntity.status(409).body(response);
+            }
+            response.put("message", dryRun ? "Dry run started" : "Collection started");
+            return ResponseEntity.status(202).body(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).build();
+        }
+    }
+
+    @GetMapping("/storage/gc")
+    public ResponseEntity<OrphanCollectionReport> getOrphanCollectionReport() {
+        try {
+            User currentUser = currentUserService.getCurrentUser();
+            if (!systemAdminService.isSystemAdmin(currentUser)) {
+                return ResponseEntity.status(403).build();
+            }
+
+            OrphanCollectionReport report = orphanCollector.getLastReport();
+            return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).build();
+        }
+    }
+
     // Inner class for system info response
     public static class SystemInfo {
         private String systemAdminEmail;
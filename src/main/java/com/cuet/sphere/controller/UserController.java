@@ -1,15 +1,22 @@
 package com.cuet.sphere.controller;
 
+import com.cuet.sphere.event.UserChangedEvent;
 import com.cuet.sphere.model.User;
 import com.cuet.sphere.repository.UserRepository;
-import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.response.UserSearchResponse;
+import com.cuet.sphere.response.UserSearchResult;
+import com.cuet.sphere.service.CurrentUserService;
+import com.cuet.sphere.service.UserCacheService;
+import com.cuet.sphere.service.UserSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,6 +27,18 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @PutMapping("/profile")
     public ResponseEntity<Map<String, Object>> updateUserProfile(@RequestBody Map<String, Object> profileData) {
         try {
@@ -53,6 +72,7 @@ public class UserController {
 
             // Save updated user
             User updatedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(updatedUser));
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -78,7 +98,7 @@ public class UserController {
             }
 
             String email = authentication.getName();
-            User user = userRepository.findUserByEmail(email);
+            User user = userCacheService.findUserByEmail(email);
             if (user == null) {
                 return ResponseEntity.status(404).body(Map.of("success", false, "message", "User not found"));
             }
@@ -96,4 +116,31 @@ public class UserController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    // Paged user search by name, student id or email (own batch and department; everyone for admins)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam String q,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        try {
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            UserSearchResponse results = userSearchService.search(currentUser, q, page, size);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "User not authenticated"));
+        }
+    }
+
+    // Best few matches for a search box, ranked by match quality
+    @GetMapping("/search/typeahead")
+    public ResponseEntity<?> typeahead(@RequestParam String q,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        try {
+            User currentUser = currentUserService.getCurrentUserSnapshot();
+            List<UserSearchResult> results = userSearchService.typeahead(currentUser, q, limit);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "message", "User not authenticated"));
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.cuet.sphere.event;
+
+import com.cuet.sphere.model.User;
+
+/**
+ * Published whenever a user is created or updated, so in-memory copies can be refreshed.
+ */
+public class UserChangedEvent {
+
+    private final User user;
+
+    public UserChangedEvent(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+}
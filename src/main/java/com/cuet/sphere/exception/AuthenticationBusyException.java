@@ -0,0 +1,16 @@
+package com.cuet.sphere.exception;
+
+// The password hashing pool is full or too slow; the caller may retry after retryAfterSeconds
+public class AuthenticationBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
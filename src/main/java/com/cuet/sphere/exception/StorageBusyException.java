@@ -0,0 +1,9 @@
+package com.cuet.sphere.exception;
+
+// Storage is at its in-flight and queue limits; the caller should retry later
+public class StorageBusyException extends RuntimeException {
+    
+    public StorageBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cuet.sphere.exception;
+
+// An upload was refused before its body was read; the caller may retry after retryAfterSeconds
+public class UploadRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UploadRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
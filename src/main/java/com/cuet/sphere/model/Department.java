@@ -16,6 +16,10 @@ public class Department {
     @Column(name = "dept_name", nullable = false, unique = true)
     private String deptName;
     
+    // Two-digit code used in student ids and emails, e.g. "04" for CSE
+    @Column(name = "dept_code", unique = true, length = 2)
+    private String deptCode;
+    
     @OneToMany(mappedBy = "department", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Course> courses;
 }
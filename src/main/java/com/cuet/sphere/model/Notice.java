@@ -8,7 +8,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "notices")
+@Table(name = "notices", indexes = {
+    @Index(name = "idx_notices_batch_dept_created", columnList = "N_batch, N_department, N_created_at"),
+    @Index(name = "idx_notices_batch_dept_type_created", columnList = "N_batch, N_department, N_notice_type, N_created_at"),
+    @Index(name = "idx_notices_sender_created", columnList = "sender_id, N_created_at"),
+    @Index(name = "idx_notices_created_at", columnList = "N_created_at")
+})
 public class Notice {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -0,0 +1,32 @@
+package com.cuet.sphere.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "notice_outbox", indexes = {
+    @Index(name = "idx_notice_outbox_next_attempt", columnList = "no_next_attempt_at, outbox_id")
+})
+public class NoticeOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    // The notice is read back when it is sent, so the row never holds a stale copy
+    @Column(name = "notice_id", nullable = false)
+    private Long noticeId;
+
+    @Column(name = "no_attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @CreationTimestamp
+    @Column(name = "no_created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "no_next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
@@ -8,7 +8,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "resources")
+@Table(name = "resources", indexes = {
+    @Index(name = "idx_resources_batch_dept_created", columnList = "r_batch, r_dept_code, r_created_at"),
+    @Index(name = "idx_resources_batch_course_created", columnList = "r_batch, course_id, r_created_at"),
+    @Index(name = "idx_resources_batch_type_created", columnList = "r_batch, r_resource_type, r_created_at"),
+    @Index(name = "idx_resources_uploader_created", columnList = "uploader_id, r_created_at"),
+    @Index(name = "idx_resources_course_created", columnList = "course_id, r_created_at"),
+    @Index(name = "idx_resources_semester_created", columnList = "semester_id, r_created_at")
+})
 public class Resource {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -18,6 +25,10 @@ public class Resource {
     @Column(name = "r_batch", nullable = false)
     private String batch;
     
+    // Department code of the course ("04" for CSE), copied here so lists can filter without joins
+    @Column(name = "r_dept_code", nullable = false, length = 2)
+    private String deptCode;
+    
     @Column(name = "r_resource_type", nullable = false)
     @Enumerated(EnumType.STRING)
     private ResourceType resourceType;
@@ -0,0 +1,101 @@
+package com.cuet.sphere.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "stored_files", indexes = {
+    @Index(name = "idx_stored_files_owner_created", columnList = "owner_id, sf_created_at")
+})
+public class StoredFile {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "file_id")
+    private Long fileId;
+    
+    // S3 object key, e.g. "notices/<uuid>.pdf"
+    @Column(name = "sf_key", nullable = false, unique = true, length = 512)
+    private String objectKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sf_purpose", nullable = false)
+    private Purpose purpose;
+    
+    @Column(name = "sf_content_type", nullable = false)
+    private String contentType;
+    
+    @Column(name = "sf_size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sf_status", nullable = false)
+    private Status status;
+    
+    @Column(name = "sf_etag")
+    private String etag;
+    
+    // Set for content-addressed attachments, which are shared by every upload of the same bytes
+    @Column(name = "sf_sha256", unique = true, length = 64)
+    private String sha256;
+    
+    // Content-addressed only: notices and resources linking to the object
+    @Column(name = "sf_ref_count", nullable = false)
+    private Integer refCount = 0;
+    
+    // When the object was last handed out by an upload or linked from a notice or resource
+    @Column(name = "sf_last_referenced_at")
+    private LocalDateTime lastReferencedAt;
+    
+    @CreationTimestamp
+    @Column(name = "sf_created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sf_completed_at")
+    private LocalDateTime completedAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+    
+    public enum Status {
+        PENDING, COMPLETE
+    }
+    
+    // What a file is for decides where it goes and what it may be
+    public enum Purpose {
+        ATTACHMENT("notices/", 10 * 1024 * 1024),
+        PROFILE("profile/", 5 * 1024 * 1024);
+        
+        private final String keyPrefix;
+        private final long maxBytes;
+        
+        Purpose(String keyPrefix, long maxBytes) {
+            this.keyPrefix = keyPrefix;
+            this.maxBytes = maxBytes;
+        }
+        
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+        
+        public boolean allows(String contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            if (this == PROFILE) {
+                return contentType.startsWith("image/");
+            }
+            return contentType.startsWith("application/pdf") ||
+                   contentType.equals("application/msword") ||
+                   contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
+                   contentType.startsWith("image/");
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.cuet.sphere.model;
 
 import jakarta.persistence.*;
+import com.cuet.sphere.util.StudentEmailParser;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
@@ -60,6 +65,10 @@ public class User {
     
     @Column(name = "u_updated_at")
     private LocalDateTime updatedAt;
+    
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient String fullStudentId;
 
     public enum Role{
         STUDENT, CR, SYSTEM_ADMIN
@@ -74,9 +83,36 @@ public class User {
         this.isActive = isActive;
     }
     
-    // Method to get full student ID (batch + department + studentId)
+    // Method to get full student ID (batch + department + studentId), built once per user
     public String getFullStudentId() {
-        return batch + department + studentId;
+        String fullId = fullStudentId;
+        if (fullId == null) {
+            fullId = batch + department + studentId;
+            fullStudentId = fullId;
+        }
+        return fullId;
+    }
+    
+    // Student ID packed into an int (see StudentEmailParser.pack), or -1 for ids not in the usual form
+    @JsonIgnore
+    public int getPackedStudentId() {
+        return StudentEmailParser.pack(batch, department, studentId);
+    }
+    
+    // The setters drop the cached full student ID
+    public void setBatch(String batch) {
+        this.batch = batch;
+        this.fullStudentId = null;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+        this.fullStudentId = null;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+        this.fullStudentId = null;
     }
     
     // Method to check if user is CR
@@ -0,0 +1,27 @@
+package com.cuet.sphere.repository;
+
+import com.cuet.sphere.model.NoticeOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NoticeOutboxRepository extends JpaRepository<NoticeOutbox, Long> {
+
+    // Oldest first, so notices reach clients in the order they were created
+    @Query("SELECT o FROM NoticeOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.outboxId")
+    List<NoticeOutbox> findDue(@Param("now") LocalDateTime now, Pageable limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NoticeOutbox o WHERE o.outboxId IN :outboxIds")
+    int deleteByOutboxIds(@Param("outboxIds") Collection<Long> outboxIds);
+}
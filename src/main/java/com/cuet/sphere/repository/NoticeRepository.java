@@ -2,6 +2,7 @@ package com.cuet.sphere.repository;
 
 import com.cuet.sphere.model.Notice;
 import com.cuet.sphere.model.Notice.NoticeType;
+import com.cuet.sphere.response.NoticeResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,28 +10,91 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoticeRepository extends JpaRepository<Notice, Long> {
     
-    @Query("SELECT n FROM Notice n WHERE n.batch = :batch AND n.department = :department ORDER BY n.createdAt DESC")
-    Page<Notice> findByBatchAndDepartmentOrderByCreatedAtDesc(
+    // Builds NoticeResponse rows directly, joining the sender in the same statement
+    // so listing notices never lazy-loads one user per row
+    String RESPONSE_SELECT = "SELECT new com.cuet.sphere.response.NoticeResponse(" +
+            "n.noticeId, n.department, n.batch, n.title, n.message, n.attachment, n.noticeType, " +
+            "s.fullName, s.email, n.createdAt, n.updatedAt) " +
+            "FROM Notice n JOIN n.sender s ";
+    
+    // The count query only runs for full pages; a short last page already gives the total
+    @Query(value = RESPONSE_SELECT + "WHERE n.batch = :batch AND n.department = :department ORDER BY n.createdAt DESC, n.noticeId DESC",
+           countQuery = "SELECT COUNT(n) FROM Notice n WHERE n.batch = :batch AND n.department = :department")
+    Page<NoticeResponse> findByBatchAndDepartmentOrderByCreatedAtDesc(
         @Param("batch") String batch, 
         @Param("department") String department,
         Pageable pageable
     );
     
-    @Query("SELECT n FROM Notice n WHERE n.sender.id = :senderId ORDER BY n.createdAt DESC")
-    List<Notice> findBySenderIdOrderByCreatedAtDesc(@Param("senderId") Long senderId);
+    @Query(value = RESPONSE_SELECT + "ORDER BY n.createdAt DESC, n.noticeId DESC",
+           countQuery = "SELECT COUNT(n) FROM Notice n")
+    Page<NoticeResponse> findAllResponses(Pageable pageable);
+    
+    @Query(RESPONSE_SELECT + "WHERE s.id = :senderId ORDER BY n.createdAt DESC")
+    List<NoticeResponse> findBySenderIdOrderByCreatedAtDesc(@Param("senderId") Long senderId);
     
-    @Query("SELECT n FROM Notice n WHERE n.batch = :batch AND n.department = :department AND n.noticeType = :noticeType ORDER BY n.createdAt DESC")
-    List<Notice> findByBatchAndDepartmentAndNoticeTypeOrderByCreatedAtDesc(
+    @Query(RESPONSE_SELECT + "WHERE n.batch = :batch AND n.department = :department AND n.noticeType = :noticeType ORDER BY n.createdAt DESC")
+    List<NoticeResponse> findByBatchAndDepartmentAndNoticeTypeOrderByCreatedAtDesc(
         @Param("batch") String batch, 
         @Param("department") String department, 
         @Param("noticeType") NoticeType noticeType
     );
     
+    @Query(RESPONSE_SELECT + "WHERE n.noticeId = :noticeId")
+    Optional<NoticeResponse> findResponseById(@Param("noticeId") Long noticeId);
+    
+    // Order is up to the caller
+    @Query(RESPONSE_SELECT + "WHERE n.noticeId IN :noticeIds")
+    List<NoticeResponse> findResponsesByIds(@Param("noticeIds") Collection<Long> noticeIds);
+    
     @Query("SELECT n FROM Notice n ORDER BY n.createdAt DESC")
     List<Notice> findAllByOrderByCreatedAtDesc();
+    
+    // Keyset (seek) queries for the notice feed: no OFFSET and no COUNT(*)
+    @Query(RESPONSE_SELECT + "WHERE n.batch = :batch AND n.department = :department ORDER BY n.createdAt DESC, n.noticeId DESC")
+    List<NoticeResponse> findFeedFirstPage(
+        @Param("batch") String batch, 
+        @Param("department") String department,
+        Pageable limit
+    );
+    
+    @Query(RESPONSE_SELECT + "WHERE n.batch = :batch AND n.department = :department " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.noticeId < :noticeId)) " +
+           "ORDER BY n.createdAt DESC, n.noticeId DESC")
+    List<NoticeResponse> findFeedAfter(
+        @Param("batch") String batch, 
+        @Param("department") String department,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("noticeId") Long noticeId,
+        Pageable limit
+    );
+    
+    @Query(RESPONSE_SELECT + "ORDER BY n.createdAt DESC, n.noticeId DESC")
+    List<NoticeResponse> findGlobalFeedFirstPage(Pageable limit);
+    
+    @Query(RESPONSE_SELECT + "WHERE n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.noticeId < :noticeId) " +
+           "ORDER BY n.createdAt DESC, n.noticeId DESC")
+    List<NoticeResponse> findGlobalFeedAfter(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("noticeId") Long noticeId,
+        Pageable limit
+    );
+    
+    // Whether a notice for this batch and department attaches the file (URL with or without a query)
+    @Query("SELECT COUNT(n) > 0 FROM Notice n WHERE n.batch = :batch AND n.department = :department " +
+           "AND (n.attachment = :url OR n.attachment LIKE CONCAT(:url, '?%'))")
+    boolean existsAttachmentForAudience(@Param("url") String url, @Param("batch") String batch,
+                                        @Param("department") String department);
+    
+    // Every attachment URL in use, for the orphaned-file collector
+    @Query("SELECT DISTINCT n.attachment FROM Notice n WHERE n.attachment IS NOT NULL")
+    List<String> findAllAttachments();
 }
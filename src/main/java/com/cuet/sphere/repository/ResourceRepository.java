@@ -2,35 +2,57 @@ package com.cuet.sphere.repository;
 
 import com.cuet.sphere.model.Resource;
 import com.cuet.sphere.model.Resource.ResourceType;
+import com.cuet.sphere.response.ResourceResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
     
-    // Find resources by batch and department
-    @Query("SELECT r FROM Resource r WHERE r.batch = :batch AND r.course.department.deptName = :department ORDER BY r.createdAt DESC")
-    List<Resource> findByBatchAndDepartment(@Param("batch") String batch, @Param("department") String department);
+    // Builds ResourceResponse rows directly, joining uploader, course, department and semester
+    // in the same statement so list endpoints don't lazy-load each association per row
+    String RESPONSE_SELECT = "SELECT new com.cuet.sphere.response.ResourceResponse(" +
+            "r.resourceId, r.batch, r.resourceType, r.title, r.filePath, r.description, r.createdAt, r.updatedAt, " +
+            "u.fullName, u.email, c.courseCode, c.courseName, d.deptName, s.semesterName) " +
+            "FROM Resource r JOIN r.uploader u JOIN r.course c JOIN c.department d JOIN r.semester s ";
+    
+    // Find resources by batch and department code
+    @Query(RESPONSE_SELECT + "WHERE r.batch = :batch AND r.deptCode = :deptCode ORDER BY r.createdAt DESC")
+    List<ResourceResponse> findByBatchAndDepartment(@Param("batch") String batch, @Param("deptCode") String deptCode);
     
     // Find resources by batch, department, and course
-    @Query("SELECT r FROM Resource r WHERE r.batch = :batch AND r.course.department.deptName = :department AND r.course.courseCode = :courseCode ORDER BY r.createdAt DESC")
-    List<Resource> findByBatchAndDepartmentAndCourse(@Param("batch") String batch, @Param("department") String department, @Param("courseCode") String courseCode);
+    @Query(RESPONSE_SELECT + "WHERE r.batch = :batch AND r.deptCode = :deptCode AND c.courseCode = :courseCode ORDER BY r.createdAt DESC")
+    List<ResourceResponse> findByBatchAndDepartmentAndCourse(@Param("batch") String batch, @Param("deptCode") String deptCode, @Param("courseCode") String courseCode);
     
     // Find resources by batch, department, course, and semester
-    @Query("SELECT r FROM Resource r WHERE r.batch = :batch AND r.course.department.deptName = :department AND r.course.courseCode = :courseCode AND r.semester.semesterName = :semester ORDER BY r.createdAt DESC")
-    List<Resource> findByBatchAndDepartmentAndCourseAndSemester(@Param("batch") String batch, @Param("department") String department, @Param("courseCode") String courseCode, @Param("semester") String semester);
+    @Query(RESPONSE_SELECT + "WHERE r.batch = :batch AND r.deptCode = :deptCode AND c.courseCode = :courseCode AND s.semesterName = :semester ORDER BY r.createdAt DESC")
+    List<ResourceResponse> findByBatchAndDepartmentAndCourseAndSemester(@Param("batch") String batch, @Param("deptCode") String deptCode, @Param("courseCode") String courseCode, @Param("semester") String semester);
     
     // Find resources by resource type
-    @Query("SELECT r FROM Resource r WHERE r.batch = :batch AND r.course.department.deptName = :department AND r.resourceType = :resourceType ORDER BY r.createdAt DESC")
-    List<Resource> findByBatchAndDepartmentAndResourceType(@Param("batch") String batch, @Param("department") String department, @Param("resourceType") ResourceType resourceType);
+    @Query(RESPONSE_SELECT + "WHERE r.batch = :batch AND r.deptCode = :deptCode AND r.resourceType = :resourceType ORDER BY r.createdAt DESC")
+    List<ResourceResponse> findByBatchAndDepartmentAndResourceType(@Param("batch") String batch, @Param("deptCode") String deptCode, @Param("resourceType") ResourceType resourceType);
     
     // Find resources by uploader (CR)
-    @Query("SELECT r FROM Resource r WHERE r.uploader.id = :uploaderId ORDER BY r.createdAt DESC")
-    List<Resource> findByUploaderId(@Param("uploaderId") Long uploaderId);
+    @Query(RESPONSE_SELECT + "WHERE u.id = :uploaderId ORDER BY r.createdAt DESC")
+    List<ResourceResponse> findByUploaderId(@Param("uploaderId") Long uploaderId);
+    
+    // Find a single resource as a response row
+    @Query(RESPONSE_SELECT + "WHERE r.resourceId = :resourceId")
+    Optional<ResourceResponse> findResponseById(@Param("resourceId") Long resourceId);
+    
+    // Find a set of resources as response rows (order is up to the caller)
+    @Query(RESPONSE_SELECT + "WHERE r.resourceId IN :resourceIds")
+    List<ResourceResponse> findResponsesByIds(@Param("resourceIds") Collection<Long> resourceIds);
+    
+    // All resources with their course, for building the search index
+    @Query("SELECT r FROM Resource r JOIN FETCH r.course")
+    List<Resource> findAllForIndexing();
     
     // Find resources by course
     @Query("SELECT r FROM Resource r WHERE r.course.courseId = :courseId ORDER BY r.createdAt DESC")
@@ -41,6 +63,15 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
     List<Resource> findBySemesterId(@Param("semesterId") Long semesterId);
     
     // Search resources by title (case-insensitive)
-    @Query("SELECT r FROM Resource r WHERE r.batch = :batch AND r.course.department.deptName = :department AND LOWER(r.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY r.createdAt DESC")
-    List<Resource> searchByTitle(@Param("batch") String batch, @Param("department") String department, @Param("searchTerm") String searchTerm);
+    @Query(RESPONSE_SELECT + "WHERE r.batch = :batch AND r.deptCode = :deptCode AND LOWER(r.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY r.createdAt DESC")
+    List<ResourceResponse> searchByTitle(@Param("batch") String batch, @Param("deptCode") String deptCode, @Param("searchTerm") String searchTerm);
+    
+    // Whether a resource for this batch and department points at the file
+    @Query("SELECT COUNT(r) > 0 FROM Resource r WHERE r.batch = :batch AND r.deptCode = :deptCode " +
+           "AND (r.filePath = :url OR r.filePath LIKE CONCAT(:url, '?%'))")
+    boolean existsFileForAudience(@Param("url") String url, @Param("batch") String batch, @Param("deptCode") String deptCode);
+    
+    // Every resource file link, for the orphaned-file collector; most point at Google Drive
+    @Query("SELECT DISTINCT r.filePath FROM Resource r")
+    List<String> findAllFilePaths();
 }
@@ -0,0 +1,62 @@
+package com.cuet.sphere.repository;
+
+import com.cuet.sphere.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+    
+    @Query("SELECT f FROM StoredFile f WHERE f.objectKey = :objectKey")
+    StoredFile findByObjectKey(@Param("objectKey") String objectKey);
+    
+    @Query("SELECT f FROM StoredFile f WHERE f.sha256 = :sha256")
+    StoredFile findBySha256(@Param("sha256") String sha256);
+    
+    // Digest and object key of every content-addressed file, for the in-memory digest index
+    @Query("SELECT f.sha256, f.objectKey FROM StoredFile f WHERE f.sha256 IS NOT NULL")
+    List<Object[]> findAllDigests();
+    
+    // Reference counts and timestamps change in single conditional statements, never read-modify-write;
+    // each returns the number of rows changed, so 0 means the object's row is gone
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount + 1, f.lastReferencedAt = :now WHERE f.sha256 = :sha256")
+    int addReference(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount - 1 WHERE f.sha256 = :sha256 AND f.refCount > 0")
+    int releaseReference(@Param("sha256") String sha256);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StoredFile f SET f.lastReferencedAt = :now WHERE f.sha256 = :sha256")
+    int touch(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+    
+    // Removes the row only while nothing links to it and it hasn't been handed out since before
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.sha256 = :sha256 AND f.refCount = 0 " +
+           "AND (f.lastReferencedAt IS NULL OR f.lastReferencedAt < :before)")
+    int deleteUnreferenced(@Param("sha256") String sha256, @Param("before") LocalDateTime before);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.objectKey IN :objectKeys")
+    int deleteByObjectKeys(@Param("objectKeys") Collection<String> objectKeys);
+    
+    // Presigned uploads that were issued but never completed
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.status = com.cuet.sphere.model.StoredFile.Status.PENDING AND f.createdAt < :before")
+    int deletePendingCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -12,9 +12,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :email")
     User findUserByEmail(@Param("email") String email);
     
-    @Query("SELECT DISTINCT u FROM User u WHERE LOWER(u.fullName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))")
-    public List<User> searchUser(@Param("query") String query);
-    
     public Optional<User> findByEmail(String email);
     
     @Query("SELECT u FROM User u WHERE u.department = :department AND u.batch = :batch")
@@ -25,4 +22,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u ORDER BY u.fullName ASC")
     List<User> findAllByOrderByFullNameAsc();
-} 
\ No newline at end of file
+    
+    // Profile and background picture URLs in use, for the orphaned-file collector
+    @Query("SELECT u.profilePicture, u.backgroundImage FROM User u WHERE u.profilePicture IS NOT NULL OR u.backgroundImage IS NOT NULL")
+    List<Object[]> findAllPictureUrls();
+}
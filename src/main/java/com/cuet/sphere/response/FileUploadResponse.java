@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -12,12 +14,18 @@ public class FileUploadResponse {
     private String fileUrl;
     private String message;
     private String error;
+    // Variant name (original, thumb, medium, full) to URL, for processed images only
+    private Map<String, String> variants;
     
     public static FileUploadResponse success(String fileUrl) {
-        return new FileUploadResponse(true, fileUrl, "File uploaded successfully", null);
+        return new FileUploadResponse(true, fileUrl, "File uploaded successfully", null, null);
+    }
+    
+    public static FileUploadResponse success(String fileUrl, Map<String, String> variants) {
+        return new FileUploadResponse(true, fileUrl, "File uploaded successfully", null, variants);
     }
     
     public static FileUploadResponse error(String error) {
-        return new FileUploadResponse(false, null, null, error);
+        return new FileUploadResponse(false, null, null, error, null);
     }
 }
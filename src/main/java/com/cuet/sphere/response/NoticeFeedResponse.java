@@ -0,0 +1,16 @@
+package com.cuet.sphere.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoticeFeedResponse {
+    private List<NoticeResponse> notices;
+    private String nextCursor; // null when there are no more notices
+    private boolean hasMore;
+}
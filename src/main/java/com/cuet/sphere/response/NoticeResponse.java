@@ -1,11 +1,15 @@
 package com.cuet.sphere.response;
 
 import com.cuet.sphere.model.Notice.NoticeType;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // used by the constructor-expression queries in NoticeRepository
 public class NoticeResponse {
     private Long noticeId;
     private String department;
@@ -0,0 +1,16 @@
+package com.cuet.sphere.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoticeSearchResponse {
+    private List<NoticeSearchResult> results;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,14 @@
+package com.cuet.sphere.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoticeSearchResult {
+    private NoticeResponse notice;
+    private String highlightedTitle;   // HTML-escaped, matches wrapped in <mark>
+    private String highlightedSnippet; // excerpt of the message around the first match
+}
@@ -0,0 +1,27 @@
+package com.cuet.sphere.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class OrphanCollectionReport {
+    private Instant startedAt;
+    private Instant finishedAt;
+    private boolean dryRun;
+    private long scannedObjects;
+    private long scannedBytes;
+    private long referencedObjects;
+    // Unreferenced but newer than the minimum age, or just matched by a new upload
+    private long skippedRecent;
+    private long orphanObjects;
+    private long orphanBytes;
+    private long deletedObjects;
+    private long reclaimedBytes;
+    private long failedDeletes;
+    private long pendingUploadsRemoved;
+    // Set when the run stopped before deleting anything
+    private String aborted;
+}
@@ -0,0 +1,8 @@
+package com.cuet.sphere.response;
+
+import lombok.Data;
+
+@Data
+public class PresignedUploadCompleteRequest {
+    private String objectKey;
+}
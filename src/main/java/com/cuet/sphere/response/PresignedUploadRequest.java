@@ -0,0 +1,12 @@
+package com.cuet.sphere.response;
+
+import com.cuet.sphere.model.StoredFile;
+import lombok.Data;
+
+@Data
+public class PresignedUploadRequest {
+    private StoredFile.Purpose purpose;
+    private String filename;
+    private String contentType;
+    private Long size;
+}
@@ -0,0 +1,22 @@
+package com.cuet.sphere.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PresignedUploadResponse {
+    private String objectKey;
+    private String uploadUrl;
+    private String method;
+    // Headers the client must send with the PUT exactly as given; they are part of the signature
+    private Map<String, String> headers;
+    private Instant expiresAt;
+    // Where the file will be readable once the upload is completed
+    private String fileUrl;
+}
@@ -1,10 +1,14 @@
 package com.cuet.sphere.response;
 
 import com.cuet.sphere.model.Resource.ResourceType;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // used by the constructor-expression queries in ResourceRepository
 public class ResourceResponse {
     private Long resourceId;
     private String batch;
@@ -0,0 +1,18 @@
+package com.cuet.sphere.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResponse {
+    private List<UserSearchResult> users;
+    private int page;
+    private int size;
+    private long totalResults;
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.cuet.sphere.response;
+
+import com.cuet.sphere.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResult {
+    private Long id;
+    private String fullName;
+    private String email;
+    private String studentId; // full id, e.g. "2204015"
+    private String batch;
+    private String department;
+    private User.Role role;
+    private String profilePicture;
+}
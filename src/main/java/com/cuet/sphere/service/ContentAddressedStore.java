@@ -0,0 +1,441 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.model.StoredFile;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.StoredFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores notice attachments by the SHA-256 of their content, so the same file uploaded by several
+ * people is stored, and sent to storage, once. A local index of known digests decides whether bytes
+ * still need uploading; stored_files keeps the digest index, the number of notices and resources
+ * linking to each object, and when it was last handed out or linked. An object is deleted once the
+ * last link is released, unless it was handed out within the reuse grace period, in which case it
+ * is left for the orphan collector.
+ *
+ * Multipart uploads are hashed from the local temp file before anything is sent, so a known file
+ * is never uploaded. Streamed uploads can't be read twice, so they are hashed while being sent to
+ * a staging key, then copied to their digest key or dropped if the digest was already stored.
+ *
+ * The per-digest stripes only guard the in-memory maps; database and storage calls happen outside
+ * them, and reference counts change through conditional updates.
+ */
+@Service
+public class ContentAddressedStore implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressedStore.class);
+
+    static final String KEY_PREFIX = "notices/sha256/";
+    private static final String STAGING_PREFIX = "notices/staging/";
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Value("${storage.content-addressed.enabled:true}")
+    private boolean enabled;
+
+    // A URL handed out this recently may be about to go into a notice, so releasing its last link keeps it
+    @Value("${storage.content-addressed.reuse-grace-minutes:60}")
+    private long reuseGraceMinutes;
+
+    // Digest -> object key of every stored object
+    private final Map<String, String> digestIndex = new ConcurrentHashMap<>();
+    // Digest -> upload in progress, so identical uploads arriving together share one transfer
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+    // Digest -> when this instance last handed it out; checked under the stripe, ahead of the database
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+    // Digest -> deletion in progress; an upload of the same bytes waits for it and then stores them afresh
+    private final Map<String, CompletableFuture<Set<String>>> deleting = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong dedupHits = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong objectsDeleted = new AtomicLong();
+
+    public ContentAddressedStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        loadIndex();
+    }
+
+    public void loadIndex() {
+        digestIndex.clear();
+        for (Object[] row : storedFileRepository.findAllDigests()) {
+            digestIndex.put((String) row[0], (String) row[1]);
+        }
+        logger.info("Content-addressed store loaded: {} digests", digestIndex.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isContentAddressed(String key) {
+        return key != null && key.startsWith(KEY_PREFIX);
+    }
+
+    /**
+     * Store a multipart attachment; completes with the URL of the (possibly shared) object.
+     */
+    public CompletableFuture<String> storeAttachment(MultipartFile file, User owner) {
+        String digest;
+        try (InputStream in = file.getInputStream()) {
+            digest = digest(in);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String key = KEY_PREFIX + digest + extensionOf(file.getOriginalFilename());
+
+        CompletableFuture<String> upload = new CompletableFuture<>();
+        String existing;
+        synchronized (stripe(digest)) {
+            CompletableFuture<Set<String>> deletion = deleting.get(digest);
+            if (deletion != null) {
+                return deletion.handle((result, error) -> null).thenCompose(ignored -> storeAttachment(file, owner));
+            }
+            existing = digestIndex.get(digest);
+            if (existing != null) {
+                lastUsed.put(digest, System.currentTimeMillis());
+            } else {
+                CompletableFuture<String> inProgress = pending.get(digest);
+                if (inProgress != null) {
+                    return inProgress.thenApply(url -> {
+                        reused(digest, file.getSize());
+                        return url;
+                    });
+                }
+                pending.put(digest, upload);
+            }
+        }
+        if (existing != null) {
+            reused(digest, file.getSize());
+            return CompletableFuture.completedFuture(storageBackend.urlFor(existing));
+        }
+
+        storageBackend.upload(file, key).whenComplete((url, error) -> {
+            if (error == null) {
+                try {
+                    record(digest, key, file.getContentType(), file.getSize(), owner);
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            stored(digest, error == null ? key : null);
+            if (error != null) {
+                upload.completeExceptionally(error);
+            } else {
+                upload.complete(url);
+            }
+        });
+        return upload;
+    }
+
+    /**
+     * Store a streamed attachment, hashing it on the way to a staging key; returns the object's URL.
+     */
+    public String storeStream(InputStream in, String originalFilename, String contentType, long maxBytes, User owner)
+            throws IOException, UserException {
+        MessageDigest sha256 = newDigest();
+        String staging = STAGING_PREFIX + UUID.randomUUID();
+        storageBackend.uploadStream(new DigestInputStream(in, sha256), staging, contentType, maxBytes);
+        String digest = HexFormat.of().formatHex(sha256.digest());
+        String key = KEY_PREFIX + digest + extensionOf(originalFilename);
+
+        try {
+            while (true) {
+                CompletableFuture<?> inProgress = null;
+                String existing = null;
+                CompletableFuture<String> ours = null;
+                synchronized (stripe(digest)) {
+                    inProgress = deleting.get(digest);
+                    if (inProgress == null) {
+                        existing = digestIndex.get(digest);
+                        if (existing != null) {
+                            lastUsed.put(digest, System.currentTimeMillis());
+                        } else {
+                            inProgress = pending.get(digest);
+                            if (inProgress == null) {
+                                ours = new CompletableFuture<>();
+                                pending.put(digest, ours);
+                            }
+                        }
+                    }
+                }
+                if (existing != null) {
+                    reused(digest, storageBackend.size(staging));
+                    return storageBackend.urlFor(existing);
+                }
+                if (ours != null) {
+                    String url;
+                    try {
+                        storageBackend.copy(staging, key, contentType);
+                        record(digest, key, contentType, storageBackend.size(key), owner);
+                        url = storageBackend.urlFor(key);
+                    } catch (RuntimeException e) {
+                        stored(digest, null);
+                        ours.completeExceptionally(e);
+                        throw e;
+                    }
+                    stored(digest, key);
+                    ours.complete(url);
+                    return url;
+                }
+                // The same bytes are being uploaded or deleted right now; check again once that's done
+                try {
+                    inProgress.join();
+                } catch (CompletionException e) {
+                    // That upload failed, so ours becomes the one that stores the object
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Upload failed: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(staging);
+        }
+    }
+
+    /**
+     * Count a new notice or resource linking to a content-addressed object. Call it in the
+     * transaction that saves the link. Returns false if the object is no longer stored.
+     */
+    public boolean retain(String key) {
+        String digest = digestOf(key);
+        synchronized (stripe(digest)) {
+            lastUsed.put(digest, System.currentTimeMillis());
+        }
+        return storedFileRepository.addReference(digest, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Drop one link to a content-addressed object, once the notice or resource holding it is gone.
+     * The object is deleted with its last link unless it was handed out within the reuse grace period.
+     */
+    public void release(String key) {
+        String digest = digestOf(key);
+        storedFileRepository.releaseReference(digest);
+
+        CompletableFuture<Set<String>> deletion = new CompletableFuture<>();
+        boolean indexed;
+        synchronized (stripe(digest)) {
+            Long used = lastUsed.get(digest);
+            if (pending.containsKey(digest) || deleting.containsKey(digest)
+                    || (used != null && used >= System.currentTimeMillis() - reuseGraceMinutes * 60_000)) {
+                return;
+            }
+            // Uploads of these bytes wait for the outcome instead of reusing the object meanwhile
+            indexed = digestIndex.remove(digest, key);
+            deleting.put(digest, deletion);
+        }
+
+        boolean deleted = false;
+        try {
+            deleted = storedFileRepository.deleteUnreferenced(digest, LocalDateTime.now().minusMinutes(reuseGraceMinutes)) > 0;
+        } catch (RuntimeException e) {
+            logger.warn("Could not release {}", key, e);
+        }
+        if (!deleted) {
+            // Still linked somewhere, or handed out recently
+            endDeletion(digest, deletion, indexed ? key : null);
+            return;
+        }
+        storageBackend.delete(key).whenComplete((result, error) -> {
+            if (error != null) {
+                // No row is left, so the orphan collector will find the object and retry
+                logger.warn("Error deleting {} from storage: {}", key, error.getMessage());
+            } else {
+                objectsDeleted.incrementAndGet();
+            }
+            endDeletion(digest, deletion, null);
+        });
+    }
+
+    /**
+     * Claim a content-addressed object that nothing refers to for deletion by the orphan collector.
+     * Refused if this instance handed it out at or after usedBefore or is uploading it, and otherwise
+     * only granted once its stored_files row is gone: it is removed here if it has no links and was not
+     * handed out since usedBefore, by any instance. Until deletion completes, uploads of the same bytes
+     * wait for it and then store them afresh; keys that could not be deleted are left to the next run.
+     */
+    public boolean claimOrphan(String key, Instant usedBefore, CompletableFuture<Set<String>> deletion) {
+        String digest = digestOf(key);
+        boolean indexed;
+        synchronized (stripe(digest)) {
+            Long used = lastUsed.get(digest);
+            if (pending.containsKey(digest) || deleting.containsKey(digest)
+                    || (used != null && used >= usedBefore.toEpochMilli())) {
+                return false;
+            }
+            indexed = digestIndex.remove(digest, key);
+            deleting.put(digest, deletion);
+        }
+
+        boolean orphaned = false;
+        try {
+            LocalDateTime before = LocalDateTime.ofInstant(usedBefore, ZoneId.systemDefault());
+            orphaned = storedFileRepository.deleteUnreferenced(digest, before) > 0
+                    || storedFileRepository.findBySha256(digest) == null;
+        } catch (RuntimeException e) {
+            logger.warn("Could not check references of {}", key, e);
+        }
+        synchronized (stripe(digest)) {
+            if (!orphaned) {
+                // Still linked, or handed out recently by some instance
+                if (indexed) {
+                    digestIndex.put(digest, key);
+                }
+                deleting.remove(digest, deletion);
+                return false;
+            }
+            lastUsed.remove(digest);
+        }
+        deletion.whenComplete((failed, error) -> {
+            synchronized (stripe(digest)) {
+                deleting.remove(digest, deletion);
+            }
+        });
+        return true;
+    }
+
+    private static String digestOf(String key) {
+        String name = key.substring(KEY_PREFIX.length());
+        int dot = name.indexOf('.');
+        return dot >= 0 ? name.substring(0, dot) : name;
+    }
+
+    private void reused(String digest, long size) {
+        storedFileRepository.touch(digest, LocalDateTime.now());
+        dedupHits.incrementAndGet();
+        bytesSaved.addAndGet(size);
+    }
+
+    // Publishes the outcome of an upload that held the pending slot: key, or null if it failed
+    private void stored(String digest, String key) {
+        synchronized (stripe(digest)) {
+            if (key != null) {
+                digestIndex.put(digest, key);
+                lastUsed.put(digest, System.currentTimeMillis());
+            }
+            pending.remove(digest);
+        }
+    }
+
+    private void endDeletion(String digest, CompletableFuture<Set<String>> deletion, String restoreKey) {
+        synchronized (stripe(digest)) {
+            if (restoreKey != null) {
+                digestIndex.put(digest, restoreKey);
+            }
+            deleting.remove(digest, deletion);
+        }
+        deletion.complete(Set.of());
+    }
+
+    // Nothing links to a new object yet; the notice or resource that uses it calls retain
+    private void record(String digest, String key, String contentType, long size, User owner) {
+        StoredFile storedFile = new StoredFile();
+        storedFile.setObjectKey(key);
+        storedFile.setPurpose(StoredFile.Purpose.ATTACHMENT);
+        storedFile.setContentType(contentType != null ? contentType : "application/octet-stream");
+        storedFile.setSizeBytes(size);
+        storedFile.setStatus(StoredFile.Status.COMPLETE);
+        storedFile.setSha256(digest);
+        storedFile.setRefCount(0);
+        storedFile.setCompletedAt(LocalDateTime.now());
+        storedFile.setLastReferencedAt(LocalDateTime.now());
+        storedFile.setOwner(owner);
+        storedFileRepository.save(storedFile);
+        uploads.incrementAndGet();
+    }
+
+    private void deleteQuietly(String key) {
+        storageBackend.delete(key).whenComplete((result, error) -> {
+            if (error != null) {
+                logger.warn("Error deleting staged upload {}: {}", key, error.getMessage());
+            }
+        });
+    }
+
+    private Object stripe(String digest) {
+        return stripes[Math.floorMod(digest.hashCode(), LOCK_STRIPES)];
+    }
+
+    static String digest(InputStream in) throws IOException {
+        MessageDigest sha256 = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            sha256.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot) : "";
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension.toLowerCase() : "";
+    }
+
+    @Override
+    public String getStatsName() {
+        return "contentStore";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("digests", digestIndex.size());
+        stats.put("pendingUploads", pending.size());
+        stats.put("uploads", uploads.get());
+        stats.put("dedupHits", dedupHits.get());
+        stats.put("bytesSaved", bytesSaved.get());
+        stats.put("objectsDeleted", objectsDeleted.get());
+        return stats;
+    }
+}
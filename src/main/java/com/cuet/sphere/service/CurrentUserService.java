@@ -0,0 +1,64 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.config.UserPrincipal;
+import com.cuet.sphere.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the user behind the current request.
+ * Read paths should use {@link #getCurrentPrincipal()} or {@link #getCurrentUserSnapshot()},
+ * which are served from the JWT claims; only paths that persist or need the full profile
+ * should call {@link #getCurrentUser()}.
+ */
+@Service
+public class CurrentUserService {
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    /**
+     * Identity of the current user, taken from the token without touching the database.
+     * Falls back to a user lookup for tokens that predate the identity claims.
+     */
+    public UserPrincipal getCurrentPrincipal() {
+        Authentication authentication = getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal;
+        }
+        return UserPrincipal.from(loadUser(authentication.getName()));
+    }
+
+    /**
+     * Detached user carrying only id, email, role, batch and department.
+     */
+    public User getCurrentUserSnapshot() {
+        return getCurrentPrincipal().toUser();
+    }
+
+    /**
+     * Full user entity for the current request, served from the user near-cache.
+     * The instance is shared; load a fresh copy from UserRepository before modifying it.
+     */
+    public User getCurrentUser() {
+        return loadUser(getAuthentication().getName());
+    }
+
+    private Authentication getAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return authentication;
+    }
+
+    private User loadUser(String email) {
+        User user = userCacheService.findUserByEmail(email);
+        if (user == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return user;
+    }
+}
@@ -1,7 +1,6 @@
 package com.cuet.sphere.service;
 
 import com.cuet.sphere.model.User;
-import com.cuet.sphere.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,14 +16,14 @@ import java.util.List;
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserCacheService userCacheService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         System.out.println("=== CustomUserDetailsService.loadUserByUsername CALLED ===");
         System.out.println("Looking for user with email: " + username);
 
-        User user = userRepository.findUserByEmail(username);
+        User user = userCacheService.findUserByEmail(username);
 
         if (user == null) {
             System.out.println("User not found with email: " + username);
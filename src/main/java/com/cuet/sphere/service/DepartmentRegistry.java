@@ -0,0 +1,182 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Department code, id and name lookups, built from the departments table.
+ * Codes are the two digits in a student id ("04" for CSE), so lookups by code index
+ * straight into arrays of 100 slots. Department ids are small sequence values and get
+ * the same treatment. A refresh builds new tables and swaps them in as one reference.
+ */
+@Service
+public class DepartmentRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentRegistry.class);
+
+    public static final int NO_CODE = -1;
+    private static final int CODE_SLOTS = 100;
+    // Beyond this, ids go in a map instead of an array
+    private static final long MAX_ARRAY_ID = 1 << 16;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private volatile Tables tables;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    public synchronized void refresh() {
+        List<Department> departments = departmentRepository.findAll();
+        Tables next = new Tables(departments);
+        tables = next;
+        if (next.skipped > 0) {
+            logger.warn("Department registry loaded: {} departments ({} without a valid code)", next.size, next.skipped);
+        } else {
+            logger.info("Department registry loaded: {} departments", next.size);
+        }
+    }
+
+    /**
+     * Parse a two-digit code such as "04"; returns NO_CODE if it is not one.
+     */
+    public static int parseCode(String code) {
+        if (code == null || code.length() != 2) {
+            return NO_CODE;
+        }
+        int tens = code.charAt(0) - '0';
+        int ones = code.charAt(1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return NO_CODE;
+        }
+        return tens * 10 + ones;
+    }
+
+    public static String formatCode(int code) {
+        return code < 10 ? "0" + code : Integer.toString(code);
+    }
+
+    public boolean isKnownCode(int code) {
+        return code >= 0 && code < CODE_SLOTS && tables().nameByCode[code] != null;
+    }
+
+    public boolean isKnownCode(String code) {
+        return isKnownCode(parseCode(code));
+    }
+
+    /**
+     * Department name for a code, or null if no department has that code.
+     */
+    public String nameForCode(int code) {
+        return code >= 0 && code < CODE_SLOTS ? tables().nameByCode[code] : null;
+    }
+
+    public String nameForCode(String code) {
+        return nameForCode(parseCode(code));
+    }
+
+    /**
+     * Department id for a code, or null if no department has that code.
+     */
+    public Long idForCode(int code) {
+        if (code < 0 || code >= CODE_SLOTS) {
+            return null;
+        }
+        long id = tables().idByCode[code];
+        return id != 0 ? id : null;
+    }
+
+    public int codeForId(long id) {
+        Tables current = tables();
+        if (id >= 0 && id < current.codeById.length) {
+            return current.codeById[(int) id];
+        }
+        return current.codeByLargeId.getOrDefault(id, NO_CODE);
+    }
+
+    public int codeForName(String name) {
+        return name == null ? NO_CODE : tables().codeByName.getOrDefault(name, NO_CODE);
+    }
+
+    /**
+     * All departments as code, id and name, ordered by code.
+     */
+    public List<Map<String, Object>> list() {
+        Tables current = tables();
+        List<Map<String, Object>> departments = new ArrayList<>(current.size);
+        for (int code = 0; code < CODE_SLOTS; code++) {
+            if (current.nameByCode[code] != null) {
+                Map<String, Object> department = new LinkedHashMap<>();
+                department.put("code", formatCode(code));
+                department.put("id", current.idByCode[code]);
+                department.put("name", current.nameByCode[code]);
+                departments.add(department);
+            }
+        }
+        return departments;
+    }
+
+    private Tables tables() {
+        Tables current = tables;
+        if (current == null) {
+            refresh();
+            current = tables;
+        }
+        return current;
+    }
+
+    private static final class Tables {
+        private final String[] nameByCode = new String[CODE_SLOTS];
+        private final long[] idByCode = new long[CODE_SLOTS];
+        private final int[] codeById;
+        private final Map<Long, Integer> codeByLargeId = new HashMap<>();
+        private final Map<String, Integer> codeByName = new HashMap<>();
+        private int size;
+        private int skipped;
+
+        Tables(List<Department> departments) {
+            long maxId = 0;
+            for (Department department : departments) {
+                if (department.getDeptId() != null && department.getDeptId() < MAX_ARRAY_ID) {
+                    maxId = Math.max(maxId, department.getDeptId());
+                }
+            }
+            codeById = new int[(int) maxId + 1];
+            Arrays.fill(codeById, NO_CODE);
+
+            for (Department department : departments) {
+                int code = parseCode(department.getDeptCode());
+                if (code == NO_CODE || department.getDeptId() == null) {
+                    skipped++;
+                    continue;
+                }
+                long id = department.getDeptId();
+                nameByCode[code] = department.getDeptName();
+                idByCode[code] = id;
+                if (id < MAX_ARRAY_ID) {
+                    codeById[(int) id] = code;
+                } else {
+                    codeByLargeId.put(id, code);
+                }
+                codeByName.put(department.getDeptName(), code);
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.StorageBusyException;
+import com.cuet.sphere.exception.UserException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns an uploaded profile or background picture into resized variants (thumb, medium, full).
+ * Each variant is decoded and re-encoded from pixels only, so EXIF, GPS and other metadata never
+ * reach the bucket; the uploaded file itself is not stored. Variants are stored as
+ * profile/name_thumb.jpg and so on.
+ * Decoding and resizing is CPU heavy, so it runs on a small bounded pool; when that pool is full,
+ * uploads are refused with StorageBusyException rather than queued without limit.
+ */
+@Service
+public class ImageVariantService implements StatsProvider {
+
+    public enum Variant {
+        THUMB("thumb"), MEDIUM("medium"), FULL("full");
+
+        private final String suffix;
+
+        Variant(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    private final StorageBackend storageBackend;
+    private final Map<Variant, Integer> maxDimensions = new LinkedHashMap<>();
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong variantBytes = new AtomicLong();
+
+    @Autowired
+    public ImageVariantService(StorageBackend storageBackend,
+                               @Value("${image.pipeline.threads:2}") int threads,
+                               @Value("${image.pipeline.queue-capacity:16}") int queueCapacity,
+                               @Value("${image.pipeline.max-pixels:40000000}") long maxPixels,
+                               @Value("${image.pipeline.jpeg-quality:0.85}") float jpegQuality,
+                               @Value("${image.pipeline.thumb-size:128}") int thumbSize,
+                               @Value("${image.pipeline.medium-size:512}") int mediumSize,
+                               @Value("${image.pipeline.full-size:1600}") int fullSize) {
+        AtomicInteger counter = new AtomicInteger();
+        this.storageBackend = storageBackend;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        maxDimensions.put(Variant.THUMB, thumbSize);
+        maxDimensions.put(Variant.MEDIUM, mediumSize);
+        maxDimensions.put(Variant.FULL, fullSize);
+        this.executor = new ThreadPoolExecutor(
+                Math.max(1, threads), Math.max(1, threads),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Store the variants of an uploaded image as profile/baseName_thumb.jpg and so on.
+     * Completes with a map of "thumb", "medium" and "full" to their URLs.
+     * Fails with UserException if the file is not an image this pipeline can read.
+     */
+    public CompletableFuture<Map<String, String>> process(MultipartFile file, String baseName) {
+        byte[] original;
+        try {
+            original = file.getBytes();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<List<Rendered>> rendering;
+        try {
+            rendering = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return render(original);
+                } catch (UserException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new StorageBusyException("Too many images being processed, please try again shortly"));
+        }
+
+        return rendering.thenCompose(variants -> {
+            Map<String, CompletableFuture<String>> uploads = new LinkedHashMap<>();
+            for (Rendered variant : variants) {
+                String key = "profile/" + baseName + "_" + variant.variant.getSuffix() + variant.extension;
+                uploads.put(variant.variant.getSuffix(), storageBackend.uploadBytes(key, variant.contentType, variant.bytes));
+            }
+            return CompletableFuture.allOf(uploads.values().toArray(new CompletableFuture[0])).thenApply(done -> {
+                Map<String, String> urls = new LinkedHashMap<>();
+                uploads.forEach((name, upload) -> urls.put(name, upload.join()));
+                processed.incrementAndGet();
+                originalBytes.addAndGet(original.length);
+                variants.forEach(variant -> variantBytes.addAndGet(variant.bytes.length));
+                return urls;
+            });
+        });
+    }
+
+    // Decode once, then scale and encode every variant from the decoded pixels
+    List<Rendered> render(byte[] original) throws UserException, IOException {
+        BufferedImage image = decode(original);
+        boolean alpha = image.getColorModel().hasAlpha();
+        List<Rendered> rendered = new ArrayList<>();
+        for (Map.Entry<Variant, Integer> entry : maxDimensions.entrySet()) {
+            BufferedImage scaled = scale(image, entry.getValue(), alpha);
+            byte[] bytes = alpha ? encodePng(scaled) : encodeJpeg(scaled);
+            rendered.add(new Rendered(entry.getKey(), bytes, alpha ? "image/png" : "image/jpeg", alpha ? ".png" : ".jpg"));
+        }
+        return rendered;
+    }
+
+    private BufferedImage decode(byte[] bytes) throws UserException, IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new UserException("Unsupported or corrupt image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the header's size before allocating pixels, so a tiny file can't claim a huge image
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new UserException("Image dimensions are too large");
+                }
+                return reader.read(0);
+            } catch (IOException | RuntimeException e) {
+                throw new UserException("Unsupported or corrupt image");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fit within maxDimension on the longer side, never upscaling; large reductions go in halving steps to keep detail
+    static BufferedImage scale(BufferedImage source, int maxDimension, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            if (current == source && factor == 1.0) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    // Transparent pixels in an opaque target would otherwise turn black
+                    graphics.setColor(java.awt.Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * The key an original and all its variants share: profile/x for profile/x.png and profile/x_thumb.jpg.
+     */
+    public static String familyOf(String key) {
+        int slash = key.lastIndexOf('/');
+        int dot = key.lastIndexOf('.');
+        String base = dot > slash ? key.substring(0, dot) : key;
+        for (Variant variant : Variant.values()) {
+            String suffix = "_" + variant.getSuffix();
+            if (base.endsWith(suffix)) {
+                return base.substring(0, base.length() - suffix.length());
+            }
+        }
+        return base;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "imagePipeline";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("processed", processed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("originalBytes", originalBytes.get());
+        stats.put("variantBytes", variantBytes.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static final class Rendered {
+        final Variant variant;
+        final byte[] bytes;
+        final String contentType;
+        final String extension;
+
+        Rendered(Variant variant, byte[] bytes, String contentType, String extension) {
+            this.variant = variant;
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Files in a directory on this server, for deployments without S3. Objects are written through a
+ * FileChannel to a temp file beside their final path and moved into place once complete, so a
+ * reader never sees half a file. LocalFileController serves them at storage.local.public-url.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalStorageBackend.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final String publicUrl;
+
+    private final AtomicLong filesWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+
+    @Autowired
+    public LocalStorageBackend(@Value("${storage.local.root:./data/storage}") String root,
+                               @Value("${storage.local.public-url:http://localhost:8080/public/files}") String publicUrl)
+            throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public CompletableFuture<String> upload(MultipartFile file, String key) {
+        try (InputStream in = file.getInputStream()) {
+            write(in, key, Long.MAX_VALUE);
+            return CompletableFuture.completedFuture(urlFor(key));
+        } catch (IOException | UserException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> uploadBytes(String key, String contentType, byte[] bytes) {
+        try {
+            Path target = pathFor(key);
+            Path temp = tempFileFor(target);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            moveIntoPlace(temp, target);
+            filesWritten.incrementAndGet();
+            bytesWritten.addAndGet(bytes.length);
+            return CompletableFuture.completedFuture(urlFor(key));
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void uploadStream(InputStream in, String key, String contentType, long maxBytes) throws IOException, UserException {
+        write(in, key, maxBytes);
+    }
+
+    private void write(InputStream in, String key, long maxBytes) throws IOException, UserException {
+        Path target = pathFor(key);
+        Path temp = tempFileFor(target);
+        long total = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = Channels.newChannel(in);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                total += buffer.remaining();
+                if (total > maxBytes) {
+                    throw new UserException("File size exceeds " + (maxBytes / (1024 * 1024)) + "MB limit");
+                }
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | UserException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        moveIntoPlace(temp, target);
+        filesWritten.incrementAndGet();
+        bytesWritten.addAndGet(total);
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey, String contentType) throws IOException {
+        Path source = pathFor(sourceKey);
+        Path target = pathFor(targetKey);
+        Path temp = tempFileFor(target);
+        try (FileChannel from = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel to = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            long size = from.size();
+            long position = 0;
+            while (position < size) {
+                position += from.transferTo(position, size - position, to);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        moveIntoPlace(temp, target);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(pathFor(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        try {
+            if (Files.deleteIfExists(pathFor(key))) {
+                filesDeleted.incrementAndGet();
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public Set<String> deleteAll(List<String> keys) throws IOException {
+        Set<String> failed = new HashSet<>();
+        for (String key : keys) {
+            try {
+                if (Files.deleteIfExists(pathFor(key))) {
+                    filesDeleted.incrementAndGet();
+                }
+            } catch (IOException e) {
+                logger.warn("Error deleting {}", key, e);
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void forEachObject(String prefix, Consumer<StoredObject> consumer) throws IOException {
+        // Keys are paths, so the directory holding the prefix is where the walk starts
+        int slash = prefix.lastIndexOf('/');
+        Path start = slash >= 0 ? root.resolve(prefix.substring(0, slash)).normalize() : root;
+        if (!start.startsWith(root) || !Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(start)) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                String key = root.relativize(path).toString().replace('\\', '/');
+                if (!key.startsWith(prefix) || resolve(key) == null) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    consumer.accept(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return publicUrl + "/" + key;
+    }
+
+    @Override
+    public String keyOf(String url) {
+        return url != null && url.startsWith(publicUrl + "/") ? url.substring(publicUrl.length() + 1) : null;
+    }
+
+    /**
+     * The file behind a key, or null if the key is malformed or points outside the storage root.
+     */
+    public Path resolve(String key) {
+        if (key == null || key.isEmpty() || key.indexOf('\0') >= 0) {
+            return null;
+        }
+        Path path;
+        try {
+            path = root.resolve(key).normalize();
+        } catch (RuntimeException e) {
+            return null;
+        }
+        // Dot files are never keys; this also keeps in-progress temp files out of reach
+        if (!path.startsWith(root) || path.equals(root) || path.getFileName().toString().startsWith(".")) {
+            return null;
+        }
+        return path;
+    }
+
+    private Path pathFor(String key) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            throw new IOException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private static Path tempFileFor(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", getName());
+        stats.put("root", root.toString());
+        stats.put("filesWritten", filesWritten.get());
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        return stats;
+    }
+}
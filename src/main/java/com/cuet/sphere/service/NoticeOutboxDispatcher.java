@@ -0,0 +1,192 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.NoticeOutbox;
+import com.cuet.sphere.repository.NoticeOutboxRepository;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.response.NoticeResponse;
+import com.cuet.sphere.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes new notices to their batch and department over WebSocket from the notice_outbox table.
+ * NoticeService writes the outbox row in the same transaction as the notice, so a notice that was
+ * saved is sent at least once: a row is only deleted after its send, and one that fails is retried
+ * with backoff. The request that created the notice only wakes this thread up after commit; it never
+ * waits for the send. Rows left behind by a restart are picked up by the periodic poll.
+ *
+ * A notice can be sent twice (e.g. if deleting its row fails), so clients should de-duplicate by noticeId.
+ */
+@Service
+public class NoticeOutboxDispatcher implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoticeOutboxDispatcher.class);
+
+    @Autowired
+    private NoticeOutboxRepository outboxRepository;
+
+    @Autowired
+    private NoticeRepository noticeRepository;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Value("${notice.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notice.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${notice.outbox.retry-base-ms:1000}")
+    private long retryBaseMs;
+
+    @Value("${notice.outbox.retry-max-ms:300000}")
+    private long retryMaxMs;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notice-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastLagMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(this::run);
+    }
+
+    /**
+     * Wake the dispatcher once the current transaction commits, or right away if there is none.
+     */
+    public void wakeUpAfterCommit() {
+        AfterCommit.run(this::wakeUp);
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Taken before the batch, so a notice committed while it runs still triggers another pass
+                wakeUps.drainPermits();
+                if (dispatchBatch() < batchSize) {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error dispatching notice outbox", e);
+                try {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Send one batch of due notices; returns how many outbox rows were due.
+     */
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NoticeOutbox> due = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> noticeIds = due.stream().map(NoticeOutbox::getNoticeId).distinct().collect(Collectors.toList());
+        Map<Long, NoticeResponse> notices = noticeRepository.findResponsesByIds(noticeIds).stream()
+                .collect(Collectors.toMap(NoticeResponse::getNoticeId, Function.identity()));
+
+        List<Long> done = new ArrayList<>();
+        List<NoticeOutbox> retry = new ArrayList<>();
+        for (NoticeOutbox entry : due) {
+            NoticeResponse notice = notices.get(entry.getNoticeId());
+            if (notice == null) {
+                // Deleted before it was sent
+                done.add(entry.getOutboxId());
+                dropped.incrementAndGet();
+                continue;
+            }
+            try {
+                webSocketService.sendNoticeToBatchAndDepartment(notice);
+                done.add(entry.getOutboxId());
+                dispatched.incrementAndGet();
+                if (entry.getCreatedAt() != null) {
+                    lastLagMillis = Duration.between(entry.getCreatedAt(), LocalDateTime.now()).toMillis();
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Error sending notice {}", entry.getNoticeId(), e);
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis(entry.getAttempts()))));
+                retry.add(entry);
+                failed.incrementAndGet();
+            }
+        }
+
+        // A crash between sending and deleting sends those notices again; never the other way round
+        if (!done.isEmpty()) {
+            outboxRepository.deleteByOutboxIds(done);
+        }
+        if (!retry.isEmpty()) {
+            outboxRepository.saveAll(retry);
+        }
+        return due.size();
+    }
+
+    long backoffMillis(int attempts) {
+        return Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+    }
+
+    @Override
+    public String getStatsName() {
+        return "noticeOutbox";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", outboxRepository.count());
+        stats.put("dispatched", dispatched.get());
+        stats.put("failedSends", failed.get());
+        stats.put("droppedDeleted", dropped.get());
+        stats.put("lastLagMillis", lastLagMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Notice;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.model.User.Role;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.response.NoticeResponse;
+import com.cuet.sphere.response.NoticeSearchResponse;
+import com.cuet.sphere.response.NoticeSearchResult;
+import com.cuet.sphere.util.AfterCommit;
+import com.cuet.sphere.util.Highlighter;
+import com.cuet.sphere.util.InvertedIndex;
+import com.cuet.sphere.util.SearchCursor;
+import com.cuet.sphere.util.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Full-text search over notice titles and messages.
+ * The index is built at startup and updated by NoticeService as notices are created and
+ * deleted, once their transaction commits. Results are scoped to the caller's batch and department (everything for system
+ * admins), highlighted, and paged with a keyset cursor over the ranking.
+ */
+@Service
+public class NoticeSearchService implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoticeSearchService.class);
+    
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int SNIPPET_LENGTH = 200;
+    
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float MESSAGE_WEIGHT = 1.0f;
+    
+    @Autowired
+    private NoticeRepository noticeRepository;
+    
+    private final InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        index.clear();
+        for (Notice notice : noticeRepository.findAll()) {
+            index(notice);
+        }
+        ready = true;
+        logger.info("Notice search index built: {} notices, {} terms in {}ms",
+            index.size(), index.termCount(), System.currentTimeMillis() - start);
+    }
+    
+    public void index(Notice notice) {
+        indexer(notice).run();
+    }
+    
+    public void remove(Long noticeId) {
+        index.remove(noticeId);
+    }
+    
+    // Terms are taken from the notice now; a rolled back save never reaches the index
+    public void indexAfterCommit(Notice notice) {
+        AfterCommit.run(indexer(notice));
+    }
+    
+    public void removeAfterCommit(Long noticeId) {
+        AfterCommit.run(() -> remove(noticeId));
+    }
+    
+    private Runnable indexer(Notice notice) {
+        InvertedIndex.Terms terms = new InvertedIndex.Terms()
+            .add(notice.getTitle(), TITLE_WEIGHT)
+            .add(notice.getMessage(), MESSAGE_WEIGHT);
+        long recency = notice.getCreatedAt() != null ? notice.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        Long noticeId = notice.getNoticeId();
+        String scope = scope(notice.getBatch(), notice.getDepartment());
+        return () -> index.put(noticeId, scope, recency, terms);
+    }
+    
+    /**
+     * Throws IllegalArgumentException for a malformed cursor. A cursor stays usable while notices
+     * are added and deleted; later pages just continue below the last hit the client saw.
+     */
+    public NoticeSearchResponse search(User user, String query, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+        if (!ready) {
+            // Only possible in the moment between the server starting and the index being built
+            return new NoticeSearchResponse(new ArrayList<>(), null, false);
+        }
+        
+        String scope = Role.SYSTEM_ADMIN.equals(user.getRole()) ? null : scope(user.getBatch(), user.getDepartment());
+        // Fetch one extra hit to know whether another page exists
+        List<InvertedIndex.Hit> hits = index.search(query, scope, after != null ? after.toHit() : null, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+        
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            ids.add(hit.getId());
+        }
+        Map<Long, NoticeResponse> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (NoticeResponse notice : noticeRepository.findResponsesByIds(ids)) {
+                byId.put(notice.getNoticeId(), notice);
+            }
+        }
+        
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+        List<NoticeSearchResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            NoticeResponse notice = byId.get(id);
+            // Skip anything deleted since the search ran
+            if (notice != null) {
+                results.add(new NoticeSearchResult(
+                    notice,
+                    Highlighter.highlight(notice.getTitle(), terms),
+                    Highlighter.snippet(notice.getMessage(), terms, SNIPPET_LENGTH)
+                ));
+            }
+        }
+        
+        String nextCursor = hasMore ? new SearchCursor(hits.get(hits.size() - 1)).encode() : null;
+        return new NoticeSearchResponse(results, nextCursor, hasMore);
+    }
+    
+    @Override
+    public String getStatsName() {
+        return "noticeSearch";
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("documents", index.size());
+        stats.put("terms", index.termCount());
+        return stats;
+    }
+    
+    private String scope(String batch, String department) {
+        return batch + ":" + department;
+    }
+}
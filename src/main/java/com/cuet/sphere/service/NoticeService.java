@@ -1,20 +1,26 @@
 package com.cuet.sphere.service;
 
 import com.cuet.sphere.model.Notice;
+import com.cuet.sphere.model.NoticeOutbox;
 import com.cuet.sphere.model.User;
 import com.cuet.sphere.model.User.Role;
+import com.cuet.sphere.repository.NoticeOutboxRepository;
 import com.cuet.sphere.repository.NoticeRepository;
 import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.response.NoticeFeedResponse;
 import com.cuet.sphere.response.NoticeRequest;
 import com.cuet.sphere.response.NoticeResponse;
+import com.cuet.sphere.response.NoticeSearchResponse;
 import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.util.NoticeCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
@@ -23,19 +29,28 @@ import java.util.HashMap;
 @Service
 public class NoticeService {
     
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    
     @Autowired
     private NoticeRepository noticeRepository;
     
-    // Temporarily comment out to isolate the issue
-    // @Autowired
-    // private WebSocketService webSocketService;
+    @Autowired
+    private NoticeOutboxRepository noticeOutboxRepository;
+    
+    @Autowired
+    private NoticeOutboxDispatcher noticeOutboxDispatcher;
     
-    // @Autowired
-    // private S3Service s3Service;
+    @Autowired
+    private S3Service s3Service;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NoticeSearchService noticeSearchService;
+    
+    // The outbox row commits with the notice; the push itself happens on NoticeOutboxDispatcher's thread
+    @Transactional(rollbackFor = Exception.class)
     public NoticeResponse createNotice(NoticeRequest noticeRequest, User sender) throws UserException {
         try {
             // Check if sender is CR or SYSTEM_ADMIN
@@ -57,9 +72,20 @@ public class NoticeService {
             
             System.out.println("Notice object created: " + notice);
             
-            Notice savedNotice = noticeRepository.save(notice);
+            // Flushed so createdAt is set and any constraint error surfaces here
+            Notice savedNotice = noticeRepository.saveAndFlush(notice);
             System.out.println("Notice saved with ID: " + savedNotice.getNoticeId());
             
+            NoticeOutbox outbox = new NoticeOutbox();
+            outbox.setNoticeId(savedNotice.getNoticeId());
+            outbox.setNextAttemptAt(LocalDateTime.now());
+            noticeOutboxRepository.save(outbox);
+            if (savedNotice.getAttachment() != null && !savedNotice.getAttachment().isEmpty()) {
+                s3Service.retainFile(savedNotice.getAttachment());
+            }
+            noticeOutboxDispatcher.wakeUpAfterCommit();
+            noticeSearchService.indexAfterCommit(savedNotice);
+            
             NoticeResponse response = convertToResponse(savedNotice);
             System.out.println("Response created: " + response);
             
@@ -72,32 +98,65 @@ public class NoticeService {
     }
     
     public Page<NoticeResponse> getNoticesByUser(User user, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        // Ordering comes from the queries themselves
+        Pageable pageable = PageRequest.of(page, size);
+        
+        if (Role.SYSTEM_ADMIN.equals(user.getRole())) {
+            return noticeRepository.findAllResponses(pageable);
+        }
+        return noticeRepository.findByBatchAndDepartmentOrderByCreatedAtDesc(
+            user.getBatch(),
+            user.getDepartment(),
+            pageable
+        );
+    }
+    
+    /**
+     * Cursor-based feed: seeks past the (createdAt, noticeId) of the last notice the client saw
+     * instead of counting and skipping rows, so every page costs the same.
+     */
+    public NoticeFeedResponse getNoticeFeed(User user, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        NoticeCursor after = cursor != null && !cursor.isBlank() ? NoticeCursor.decode(cursor) : null;
         
-        Page<Notice> notices;
+        List<NoticeResponse> notices;
         if (Role.SYSTEM_ADMIN.equals(user.getRole())) {
-            notices = noticeRepository.findAll(pageable);
+            notices = after == null
+                ? noticeRepository.findGlobalFeedFirstPage(limit)
+                : noticeRepository.findGlobalFeedAfter(after.getCreatedAt(), after.getNoticeId(), limit);
         } else {
-            notices = noticeRepository.findByBatchAndDepartmentOrderByCreatedAtDesc(
-                user.getBatch(),
-                user.getDepartment(),
-                pageable
-            );
+            notices = after == null
+                ? noticeRepository.findFeedFirstPage(user.getBatch(), user.getDepartment(), limit)
+                : noticeRepository.findFeedAfter(user.getBatch(), user.getDepartment(),
+                    after.getCreatedAt(), after.getNoticeId(), limit);
+        }
+        
+        boolean hasMore = notices.size() > pageSize;
+        if (hasMore) {
+            notices = notices.subList(0, pageSize);
         }
         
-        return notices.map(this::convertToResponse);
+        String nextCursor = null;
+        if (hasMore) {
+            NoticeResponse last = notices.get(notices.size() - 1);
+            nextCursor = new NoticeCursor(last.getCreatedAt(), last.getNoticeId()).encode();
+        }
+        
+        return new NoticeFeedResponse(notices, nextCursor, hasMore);
+    }
+    
+    public NoticeSearchResponse searchNotices(User user, String query, String cursor, int size) {
+        return noticeSearchService.search(user, query, cursor, size);
     }
     
     public List<NoticeResponse> getNoticesByUserAndType(User user, Notice.NoticeType noticeType) {
-        List<Notice> notices = noticeRepository.findByBatchAndDepartmentAndNoticeTypeOrderByCreatedAtDesc(
+        return noticeRepository.findByBatchAndDepartmentAndNoticeTypeOrderByCreatedAtDesc(
             user.getBatch(), 
             user.getDepartment(), 
             noticeType
         );
-        
-        return notices.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
     }
     
     public List<NoticeResponse> getNoticesBySender(User sender) throws UserException {
@@ -105,15 +164,11 @@ public class NoticeService {
             throw new UserException("Only CR users and System Administrators can view their sent notices");
         }
         
-        List<Notice> notices = noticeRepository.findBySenderIdOrderByCreatedAtDesc(sender.getId());
-        
-        return notices.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return noticeRepository.findBySenderIdOrderByCreatedAtDesc(sender.getId());
     }
     
     public NoticeResponse getNoticeById(Long noticeId, User user) throws UserException {
-        Notice notice = noticeRepository.findById(noticeId)
+        NoticeResponse notice = noticeRepository.findResponseById(noticeId)
             .orElseThrow(() -> new UserException("Notice not found"));
         
         // Check if user can access this notice
@@ -123,7 +178,7 @@ public class NoticeService {
             throw new UserException("Access denied: Notice not for your batch/department");
         }
         
-        return convertToResponse(notice);
+        return notice;
     }
     
     public List<Map<String, Object>> getGroupMembers(User user) {
@@ -155,6 +210,7 @@ public class NoticeService {
             .collect(Collectors.toList());
     }
     
+    @Transactional(rollbackFor = Exception.class)
     public void deleteNotice(Long noticeId, User user) throws UserException {
         Notice notice = noticeRepository.findById(noticeId)
             .orElseThrow(() -> new UserException("Notice not found"));
@@ -165,21 +221,12 @@ public class NoticeService {
             throw new UserException("Access denied: You can only delete your own notices");
         }
         
-        // Delete the attachment file from S3 if it exists (optional - don't fail if S3 is not available)
-        // Temporarily comment out S3 deletion to isolate the issue
-        // if (notice.getAttachment() != null && !notice.getAttachment().isEmpty()) {
-        //     try {
-        //         if (s3Service != null) {
-        //             s3Service.deleteFile(notice.getAttachment());
-        //         }
-        //     } catch (Exception e) {
-        //         // Log error but don't fail notice deletion
-        //         System.err.println("S3 file deletion failed: " + e.getMessage());
-        //     }
-        // }
-        
         // Delete the notice from database
         noticeRepository.delete(notice);
+        noticeSearchService.removeAfterCommit(noticeId);
+        
+        // A shared attachment is deleted with its last notice or resource, once this delete commits
+        s3Service.releaseFileAfterCommit(notice.getAttachment());
     }
     
     private NoticeResponse convertToResponse(Notice notice) {
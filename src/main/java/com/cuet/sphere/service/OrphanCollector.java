@@ -0,0 +1,292 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.repository.ResourceRepository;
+import com.cuet.sphere.repository.StoredFileRepository;
+import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.response.OrphanCollectionReport;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes stored files nothing refers to any more: attachments of deleted or edited notices,
+ * replaced profile and background pictures, abandoned stream uploads and presigned uploads.
+ * A run lists every object under notices/ and profile/ and compares it with the URLs in
+ * notices.N_attachment, users.u_profile_picture / u_background_image and resources.r_file_path.
+ * An unreferenced object is deleted only once it is older than min-age-hours, because a
+ * file is uploaded before the notice or profile that uses it is saved. Shared attachments are
+ * also checked against stored_files: one with links, or handed out within min-age-hours, is kept.
+ *
+ * Runs happen on a single background thread, on a schedule or when an admin asks for one.
+ */
+@Service
+public class OrphanCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanCollector.class);
+
+    static final List<String> PREFIXES = List.of("notices/", "profile/");
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private ContentAddressedStore contentStore;
+
+    @Autowired
+    private NoticeRepository noticeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.gc.initial-delay-minutes:10}")
+    private long initialDelayMinutes;
+
+    @Value("${storage.gc.interval-hours:24}")
+    private long intervalHours;
+
+    @Value("${storage.gc.min-age-hours:24}")
+    private long minAgeHours;
+
+    // Refuse to delete when more than this share of all objects looks orphaned; that smells of a changed bucket URL
+    @Value("${storage.gc.max-orphan-fraction:0.5}")
+    private double maxOrphanFraction;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile OrphanCollectionReport lastReport;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(() -> runQuietly(false), initialDelayMinutes * 60,
+                    Math.max(1, intervalHours) * 3600, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Start a run in the background; false if one is already running.
+     */
+    public boolean startRun(boolean dryRun) {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> runQuietly(dryRun));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public OrphanCollectionReport getLastReport() {
+        return lastReport;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void runQuietly(boolean dryRun) {
+        try {
+            collect(dryRun);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Orphaned file collection failed", e);
+        }
+    }
+
+    OrphanCollectionReport collect(boolean dryRun) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            OrphanCollectionReport report = new OrphanCollectionReport();
+            report.setStartedAt(Instant.now());
+            report.setDryRun(dryRun);
+            Instant cutoff = report.getStartedAt().minus(Duration.ofHours(minAgeHours));
+
+            // References are read before listing, so anything saved meanwhile is younger than the cutoff
+            References references = loadReferences();
+            List<StorageBackend.StoredObject> orphans = new ArrayList<>();
+            for (String prefix : PREFIXES) {
+                storageBackend.forEachObject(prefix, object -> {
+                    report.setScannedObjects(report.getScannedObjects() + 1);
+                    report.setScannedBytes(report.getScannedBytes() + object.getSize());
+                    if (references.contains(object.getKey())) {
+                        report.setReferencedObjects(report.getReferencedObjects() + 1);
+                    } else if (object.getLastModified().isAfter(cutoff)) {
+                        report.setSkippedRecent(report.getSkippedRecent() + 1);
+                    } else {
+                        orphans.add(object);
+                    }
+                });
+            }
+            report.setOrphanObjects(orphans.size());
+            report.setOrphanBytes(orphans.stream().mapToLong(StorageBackend.StoredObject::getSize).sum());
+
+            if (orphans.size() > maxOrphanFraction * report.getScannedObjects()) {
+                report.setAborted(orphans.size() + " of " + report.getScannedObjects()
+                        + " objects look orphaned; check aws.s3.bucket.url / storage.local.public-url");
+            } else if (!dryRun) {
+                for (int from = 0; from < orphans.size(); from += BATCH_SIZE) {
+                    deleteBatch(orphans.subList(from, Math.min(orphans.size(), from + BATCH_SIZE)), cutoff, report);
+                }
+                LocalDateTime pendingCutoff = LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+                report.setPendingUploadsRemoved(storedFileRepository.deletePendingCreatedBefore(pendingCutoff));
+            }
+
+            report.setFinishedAt(Instant.now());
+            lastReport = report;
+            logger.info("Orphaned file collection{}: scanned {}, orphaned {}, deleted {}, reclaimed {} bytes{}",
+                    dryRun ? " (dry run)" : "", report.getScannedObjects(), report.getOrphanObjects(),
+                    report.getDeletedObjects(), report.getReclaimedBytes(),
+                    report.getAborted() != null ? ", aborted: " + report.getAborted() : "");
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void deleteBatch(List<StorageBackend.StoredObject> batch, Instant cutoff, OrphanCollectionReport report) {
+        // Shared attachments are claimed first, against their persistent reference count and last use,
+        // so an identical upload arriving now waits instead of reusing them
+        CompletableFuture<Set<String>> deletion = new CompletableFuture<>();
+        List<String> keys = new ArrayList<>();
+        long bytes = 0;
+        for (StorageBackend.StoredObject object : batch) {
+            if (contentStore.isContentAddressed(object.getKey())
+                    && !contentStore.claimOrphan(object.getKey(), cutoff, deletion)) {
+                report.setSkippedRecent(report.getSkippedRecent() + 1);
+                continue;
+            }
+            keys.add(object.getKey());
+        }
+        if (keys.isEmpty()) {
+            deletion.complete(Set.of());
+            return;
+        }
+
+        Set<String> failed = new HashSet<>(keys);
+        try {
+            failed = storageBackend.deleteAll(keys);
+            List<String> deleted = new ArrayList<>(keys);
+            deleted.removeAll(failed);
+            if (!deleted.isEmpty()) {
+                storedFileRepository.deleteByObjectKeys(deleted);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error deleting orphaned files", e);
+        } finally {
+            deletion.complete(failed);
+        }
+
+        for (StorageBackend.StoredObject object : batch) {
+            if (keys.contains(object.getKey()) && !failed.contains(object.getKey())) {
+                bytes += object.getSize();
+            }
+        }
+        report.setDeletedObjects(report.getDeletedObjects() + keys.size() - failed.size());
+        report.setFailedDeletes(report.getFailedDeletes() + failed.size());
+        report.setReclaimedBytes(report.getReclaimedBytes() + bytes);
+    }
+
+    private References loadReferences() {
+        References references = new References();
+        noticeRepository.findAllAttachments().forEach(references::add);
+        resourceRepository.findAllFilePaths().forEach(references::add);
+        for (Object[] pictures : userRepository.findAllPictureUrls()) {
+            references.add((String) pictures[0]);
+            references.add((String) pictures[1]);
+        }
+        return references;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Object keys in use; a referenced profile picture keeps every variant. Originals stored by earlier
+    // versions are kept only if a profile links to them directly, since they still carry their metadata
+    private final class References {
+        private final Set<String> keys = new HashSet<>();
+        private final Set<String> pictureFamilies = new HashSet<>();
+
+        void add(String url) {
+            String key = keyOf(url);
+            if (key == null) {
+                return;
+            }
+            keys.add(key);
+            if (key.startsWith("profile/")) {
+                pictureFamilies.add(ImageVariantService.familyOf(key));
+            }
+        }
+
+        boolean contains(String key) {
+            return keys.contains(key)
+                    || (key.startsWith("profile/") && isVariant(key) && pictureFamilies.contains(ImageVariantService.familyOf(key)));
+        }
+
+        private boolean isVariant(String key) {
+            int dot = key.lastIndexOf('.');
+            String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+            return !ImageVariantService.familyOf(key).equals(base);
+        }
+
+        private String keyOf(String url) {
+            if (url == null || url.isBlank()) {
+                return null;
+            }
+            int query = url.indexOf('?');
+            String bare = query >= 0 ? url.substring(0, query) : url;
+            String key = storageBackend.keyOf(bare);
+            if (key != null) {
+                return key;
+            }
+            // Links saved under an earlier bucket or host name still protect their object
+            for (String prefix : PREFIXES) {
+                int at = bare.indexOf("/" + prefix);
+                if (at >= 0) {
+                    return bare.substring(at + 1);
+                }
+            }
+            return null;
+        }
+    }
+}
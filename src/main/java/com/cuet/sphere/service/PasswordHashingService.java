@@ -0,0 +1,159 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.event.UserChangedEvent;
+import com.cuet.sphere.exception.AuthenticationBusyException;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small dedicated worker pool.
+ * BCrypt is deliberately slow, so a burst of logins is queued here instead of tying up the
+ * request threads that serve everything else: callers get a future and the request is
+ * completed asynchronously. Once the queue is full, or a hash waits in it longer than the
+ * timeout, the future fails with AuthenticationBusyException (503 with Retry-After).
+ * A timed-out hash that hasn't started yet is skipped, so abandoned work never reaches a worker.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${auth.password-hashing.threads:0}") int threads,
+                                  @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.password-hashing.timeout-millis:5000}") long timeoutMillis,
+                                  @Value("${auth.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * After a successful signin, re-encode the password in the background if the stored
+     * hash was made with a different cost than the encoder currently uses.
+     * Skipped silently when the pool is busy; the next signin will try again.
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String storedHash = user.getPassword();
+        if (user.getId() == null || !passwordEncoder.upgradeEncoding(storedHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> rehash(user.getId(), storedHash, rawPassword));
+        } catch (RejectedExecutionException e) {
+            logger.info("Skipping password rehash for user {}: hashing pool is busy", user.getId());
+        }
+    }
+
+    private void rehash(Long userId, String expectedHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            User fresh = userRepository.findById(userId).orElse(null);
+            // Don't overwrite a password that changed while we were hashing
+            if (fresh == null || !expectedHash.equals(fresh.getPassword())) {
+                return;
+            }
+            fresh.setPassword(newHash);
+            userRepository.save(fresh);
+            eventPublisher.publishEvent(new UserChangedEvent(fresh));
+            logger.info("Rehashed password for user {}", userId);
+        } catch (Exception e) {
+            logger.warn("Password rehash failed for user {}", userId, e);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable job = () -> {
+            // Timed out while queued: nobody is waiting for this hash any more
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        };
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(
+                    new AuthenticationBusyException("Too many authentication requests, please try again shortly", retryAfterSeconds));
+            return result;
+        }
+        return result
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    if (!(unwrap(e) instanceof TimeoutException)) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                    // Free its queue slot now rather than when a worker gets to it
+                    executor.remove(job);
+                    return CompletableFuture.failedFuture(
+                            new AuthenticationBusyException("Authentication timed out, please try again", retryAfterSeconds));
+                });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
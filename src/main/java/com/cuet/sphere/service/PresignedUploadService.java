@@ -0,0 +1,242 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.model.StoredFile;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.repository.ResourceRepository;
+import com.cuet.sphere.repository.StoredFileRepository;
+import com.cuet.sphere.response.PresignedUploadRequest;
+import com.cuet.sphere.response.PresignedUploadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets clients move file bytes straight to and from S3 with short-lived presigned URLs.
+ * An upload is issued for a declared type and size that are checked against the same rules as
+ * FileUploadController and then signed into the URL, so S3 refuses any other body. The issued key
+ * is recorded as PENDING and only becomes COMPLETE once the client reports the upload and the
+ * object in the bucket matches what was declared. A download is only signed for files the caller
+ * could already see: their own uploads, and files attached to a notice or resource of their batch
+ * and department.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class PresignedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresignedUploadService.class);
+
+    private final S3Presigner s3Presigner;
+    private final S3Client s3Client;
+    private final StoredFileRepository storedFileRepository;
+    private final NoticeRepository noticeRepository;
+    private final ResourceRepository resourceRepository;
+    private final String bucketName;
+    private final String bucketUrl;
+    private final Duration uploadTtl;
+    private final Duration downloadTtl;
+
+    @Autowired
+    public PresignedUploadService(S3Presigner s3Presigner,
+                                  S3Client s3Client,
+                                  StoredFileRepository storedFileRepository,
+                                  NoticeRepository noticeRepository,
+                                  ResourceRepository resourceRepository,
+                                  @Value("${aws.s3.bucket.name}") String bucketName,
+                                  @Value("${aws.s3.bucket.url}") String bucketUrl,
+                                  @Value("${aws.s3.presign.upload-ttl-seconds:300}") long uploadTtlSeconds,
+                                  @Value("${aws.s3.presign.download-ttl-seconds:600}") long downloadTtlSeconds) {
+        this.s3Presigner = s3Presigner;
+        this.s3Client = s3Client;
+        this.storedFileRepository = storedFileRepository;
+        this.noticeRepository = noticeRepository;
+        this.resourceRepository = resourceRepository;
+        this.bucketName = bucketName;
+        this.bucketUrl = bucketUrl;
+        this.uploadTtl = Duration.ofSeconds(uploadTtlSeconds);
+        this.downloadTtl = Duration.ofSeconds(downloadTtlSeconds);
+    }
+
+    @Transactional
+    public PresignedUploadResponse createUpload(PresignedUploadRequest request, User owner) throws UserException {
+        StoredFile.Purpose purpose = request.getPurpose() != null ? request.getPurpose() : StoredFile.Purpose.ATTACHMENT;
+        String contentType = request.getContentType();
+        Long size = request.getSize();
+        if (size == null || size <= 0) {
+            throw new UserException("File size is required");
+        }
+        if (size > purpose.getMaxBytes()) {
+            throw new UserException("File size exceeds " + (purpose.getMaxBytes() / (1024 * 1024)) + "MB limit");
+        }
+        if (!purpose.allows(contentType)) {
+            throw new UserException(purpose == StoredFile.Purpose.PROFILE
+                    ? "Only image files are allowed for profile pictures"
+                    : "File type not allowed. Allowed types: PDF, DOC, DOCX, JPG, PNG, GIF");
+        }
+
+        String key = purpose.getKeyPrefix() + UUID.randomUUID() + extensionOf(request.getFilename());
+
+        // Content type and length are signed, so S3 rejects a PUT with any other type or size
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(size)
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(uploadTtl)
+                .putObjectRequest(putObjectRequest));
+
+        StoredFile storedFile = new StoredFile();
+        storedFile.setObjectKey(key);
+        storedFile.setPurpose(purpose);
+        storedFile.setContentType(contentType);
+        storedFile.setSizeBytes(size);
+        storedFile.setStatus(StoredFile.Status.PENDING);
+        storedFile.setOwner(owner);
+        storedFileRepository.save(storedFile);
+
+        return new PresignedUploadResponse(key, presigned.url().toString(), "PUT",
+                headersToSend(presigned.signedHeaders()), presigned.expiration(), bucketUrl + "/" + key);
+    }
+
+    /**
+     * Called by the client after its PUT succeeded. Checks the object against what was issued and
+     * records it; returns the public URL to use in a notice or profile.
+     */
+    @Transactional
+    public String completeUpload(String objectKey, User owner) throws UserException {
+        StoredFile storedFile = objectKey != null ? storedFileRepository.findByObjectKey(objectKey) : null;
+        if (storedFile == null || !storedFile.getOwner().getId().equals(owner.getId())) {
+            throw new UserException("Upload not found");
+        }
+        String fileUrl = bucketUrl + "/" + objectKey;
+        if (storedFile.getStatus() == StoredFile.Status.COMPLETE) {
+            return fileUrl;
+        }
+
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(builder -> builder.bucket(bucketName).key(objectKey));
+        } catch (NoSuchKeyException e) {
+            throw new UserException("File has not been uploaded yet");
+        }
+        if (head.contentLength() == null || head.contentLength() > storedFile.getPurpose().getMaxBytes()
+                || !head.contentLength().equals(storedFile.getSizeBytes())) {
+            deleteQuietly(objectKey);
+            storedFileRepository.delete(storedFile);
+            throw new UserException("Uploaded file does not match the declared size");
+        }
+
+        storedFile.setStatus(StoredFile.Status.COMPLETE);
+        storedFile.setEtag(head.eTag());
+        storedFile.setCompletedAt(LocalDateTime.now());
+        storedFileRepository.save(storedFile);
+        return fileUrl;
+    }
+
+    /**
+     * Short-lived GET URL for an uploaded object, given its key or its public URL.
+     */
+    public Map<String, Object> createDownload(String keyOrUrl, User user) throws UserException {
+        String key = keyOrUrl != null && keyOrUrl.startsWith(bucketUrl + "/")
+                ? keyOrUrl.substring(bucketUrl.length() + 1)
+                : keyOrUrl;
+        if (key == null || key.contains("..") || !isUploadKey(key)) {
+            throw new UserException("Unknown file");
+        }
+        if (!canRead(key, user)) {
+            throw new UserException("Access denied: File not for your batch/department");
+        }
+
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(builder -> builder
+                .signatureDuration(downloadTtl)
+                .getObjectRequest(getObjectRequest));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("objectKey", key);
+        response.put("downloadUrl", presigned.url().toString());
+        response.put("expiresAt", presigned.expiration());
+        return response;
+    }
+
+    // Same rule as getNoticeById and getResourceById: system admins see everything, others
+    // their own batch and department. Profile pictures are shown to everyone already.
+    private boolean canRead(String key, User user) {
+        if (User.Role.SYSTEM_ADMIN.equals(user.getRole()) || key.startsWith(StoredFile.Purpose.PROFILE.getKeyPrefix())) {
+            return true;
+        }
+        StoredFile storedFile = storedFileRepository.findByObjectKey(key);
+        if (storedFile != null && storedFile.getOwner() != null && storedFile.getOwner().getId().equals(user.getId())) {
+            return true;
+        }
+        if (user.getBatch() == null || user.getDepartment() == null) {
+            return false;
+        }
+        String url = bucketUrl + "/" + key;
+        return noticeRepository.existsAttachmentForAudience(url, user.getBatch(), user.getDepartment())
+                || resourceRepository.existsFileForAudience(url, user.getBatch(), user.getDepartment());
+    }
+
+    private boolean isUploadKey(String key) {
+        for (StoredFile.Purpose purpose : StoredFile.Purpose.values()) {
+            if (key.startsWith(purpose.getKeyPrefix()) && key.length() > purpose.getKeyPrefix().length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            s3Client.deleteObject(builder -> builder.bucket(bucketName).key(key));
+        } catch (RuntimeException e) {
+            logger.warn("Error deleting {} from S3", key, e);
+        }
+    }
+
+    // The host header is set by every HTTP client on its own
+    private static Map<String, String> headersToSend(Map<String, List<String>> signedHeaders) {
+        Map<String, String> headers = new HashMap<>();
+        signedHeaders.forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("host")) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return headers;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot) : "";
+        // Keep keys tidy: only short alphanumeric extensions survive
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension.toLowerCase() : "";
+    }
+}
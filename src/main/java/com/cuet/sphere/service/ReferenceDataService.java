@@ -0,0 +1,331 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Course;
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.model.Semester;
+import com.cuet.sphere.repository.CourseRepository;
+import com.cuet.sphere.repository.DepartmentRepository;
+import com.cuet.sphere.repository.SemesterRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory copy of the course, semester and department tables.
+ * This data only changes when DataLoader seeds it or an admin edits it, so lookups are served
+ * from an immutable snapshot. A refresh builds a new snapshot and swaps it in, so readers
+ * never see a half-built one. A lookup that misses checks the database and, if the row
+ * exists after all, refreshes the snapshot.
+ */
+@Service
+public class ReferenceDataService implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Reload everything from the database and publish it as the new snapshot.
+     */
+    public synchronized Snapshot refresh() {
+        List<DepartmentRef> departments = new ArrayList<>();
+        for (Department department : departmentRepository.findAll()) {
+            departments.add(new DepartmentRef(department.getDeptId(), department.getDeptCode(), department.getDeptName()));
+        }
+        List<SemesterRef> semesters = new ArrayList<>();
+        for (Semester semester : semesterRepository.findAll()) {
+            semesters.add(new SemesterRef(semester.getSemesterId(), semester.getSemesterName()));
+        }
+        List<CourseRef> courses = new ArrayList<>();
+        for (Course course : courseRepository.findAllWithDepartment()) {
+            Department department = course.getDepartment();
+            courses.add(new CourseRef(course.getCourseId(), course.getCourseCode(), course.getCourseName(),
+                department.getDeptId(), department.getDeptName()));
+        }
+        departments.sort(Comparator.comparing(DepartmentRef::getName));
+        semesters.sort(Comparator.comparing(SemesterRef::getName));
+        courses.sort(Comparator.comparing(CourseRef::getCode));
+
+        Snapshot next = new Snapshot(departments, semesters, courses, objectMapper);
+        snapshot = next;
+        logger.info("Reference data loaded: {} departments, {} semesters, {} courses (ETag {})",
+            departments.size(), semesters.size(), courses.size(), next.getEtag());
+        return next;
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Course by code, or null if there is no such course.
+     */
+    public CourseRef findCourse(String courseCode) {
+        if (courseCode == null) {
+            return null;
+        }
+        CourseRef course = getSnapshot().coursesByCode.get(courseCode);
+        if (course == null && courseRepository.findByCourseCode(courseCode) != null) {
+            course = refresh().coursesByCode.get(courseCode);
+        }
+        return course;
+    }
+
+    /**
+     * Semester by name, or null if there is no such semester.
+     */
+    public SemesterRef findSemester(String semesterName) {
+        if (semesterName == null) {
+            return null;
+        }
+        SemesterRef semester = getSnapshot().semestersByName.get(semesterName);
+        if (semester == null && semesterRepository.findBySemesterName(semesterName) != null) {
+            semester = refresh().semestersByName.get(semesterName);
+        }
+        return semester;
+    }
+
+    /**
+     * Department by name, or null if there is no such department.
+     */
+    public DepartmentRef findDepartment(String deptName) {
+        if (deptName == null) {
+            return null;
+        }
+        DepartmentRef department = getSnapshot().departmentsByName.get(deptName);
+        if (department == null && departmentRepository.findByDeptName(deptName) != null) {
+            department = refresh().departmentsByName.get(deptName);
+        }
+        return department;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "referenceData";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Snapshot current = getSnapshot();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("departments", current.departments.size());
+        stats.put("semesters", current.semesters.size());
+        stats.put("courses", current.courses.size());
+        stats.put("etag", current.etag);
+        stats.put("loadedAt", current.loadedAt.toString());
+        return stats;
+    }
+
+    /**
+     * One immutable version of the reference data, with the catalogue pre-rendered as JSON
+     * and an ETag derived from its content.
+     */
+    public static final class Snapshot {
+        private final List<DepartmentRef> departments;
+        private final List<SemesterRef> semesters;
+        private final List<CourseRef> courses;
+        private final Map<String, DepartmentRef> departmentsByName = new HashMap<>();
+        private final Map<String, SemesterRef> semestersByName = new HashMap<>();
+        private final Map<String, CourseRef> coursesByCode = new HashMap<>();
+        private final byte[] catalogueJson;
+        private final String etag;
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        Snapshot(List<DepartmentRef> departments, List<SemesterRef> semesters, List<CourseRef> courses,
+                 ObjectMapper objectMapper) {
+            this.departments = Collections.unmodifiableList(departments);
+            this.semesters = Collections.unmodifiableList(semesters);
+            this.courses = Collections.unmodifiableList(courses);
+            departments.forEach(d -> departmentsByName.put(d.getName(), d));
+            semesters.forEach(s -> semestersByName.put(s.getName(), s));
+            courses.forEach(c -> coursesByCode.put(c.getCode(), c));
+
+            Map<String, Object> catalogue = new LinkedHashMap<>();
+            catalogue.put("departments", this.departments);
+            catalogue.put("semesters", this.semesters);
+            catalogue.put("courses", this.courses);
+            try {
+                this.catalogueJson = objectMapper.writeValueAsBytes(catalogue);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize reference data", e);
+            }
+            this.etag = "\"" + digest(catalogueJson) + "\"";
+        }
+
+        public byte[] getCatalogueJson() {
+            return catalogueJson.clone();
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<DepartmentRef> getDepartments() {
+            return departments;
+        }
+
+        public List<SemesterRef> getSemesters() {
+            return semesters;
+        }
+
+        public List<CourseRef> getCourses() {
+            return courses;
+        }
+
+        private static String digest(byte[] content) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+                return HexFormat.of().formatHex(hash, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static final class DepartmentRef {
+        private final Long id;
+        private final String code;
+        private final String name;
+
+        DepartmentRef(Long id, String code, String name) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Detached entity carrying the id, code and name, for use as an association.
+         */
+        public Department toEntity() {
+            Department department = new Department();
+            department.setDeptId(id);
+            department.setDeptCode(code);
+            department.setDeptName(name);
+            return department;
+        }
+    }
+
+    public static final class SemesterRef {
+        private final Long id;
+        private final String name;
+
+        SemesterRef(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Semester toEntity() {
+            Semester semester = new Semester();
+            semester.setSemesterId(id);
+            semester.setSemesterName(name);
+            return semester;
+        }
+    }
+
+    public static final class CourseRef {
+        private final Long id;
+        private final String code;
+        private final String name;
+        private final Long departmentId;
+        private final String departmentName;
+
+        CourseRef(Long id, String code, String name, Long departmentId, String departmentName) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.departmentId = departmentId;
+            this.departmentName = departmentName;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getDepartmentId() {
+            return departmentId;
+        }
+
+        public String getDepartmentName() {
+            return departmentName;
+        }
+
+        /**
+         * Detached entity (with its department) for use as an association; saving a resource
+         * that points at it only writes the foreign key.
+         */
+        public Course toEntity() {
+            Course course = new Course();
+            course.setCourseId(id);
+            course.setCourseCode(code);
+            course.setCourseName(name);
+            Department department = new Department();
+            department.setDeptId(departmentId);
+            department.setDeptName(departmentName);
+            course.setDepartment(department);
+            return course;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Course;
+import com.cuet.sphere.model.Resource;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.ResourceRepository;
+import com.cuet.sphere.response.ResourceResponse;
+import com.cuet.sphere.response.ResourceSearchResponse;
+import com.cuet.sphere.util.AfterCommit;
+import com.cuet.sphere.util.InvertedIndex;
+import com.cuet.sphere.util.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked full-text search over resources.
+ * The index covers title, description, course code and name, and resource type, and is
+ * kept in step with the database by ResourceService on create, update and delete, once
+ * each transaction commits.
+ * Only ids and terms live in memory; the matching page is loaded with one query.
+ */
+@Service
+public class ResourceSearchService implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSearchService.class);
+    
+    private static final int MAX_PAGE_SIZE = 50;
+    
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float COURSE_CODE_WEIGHT = 2.5f;
+    private static final float COURSE_NAME_WEIGHT = 1.5f;
+    private static final float TYPE_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    private final InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        index.clear();
+        for (Resource resource : resourceRepository.findAllForIndexing()) {
+            index(resource);
+        }
+        ready = true;
+        logger.info("Resource search index built: {} resources, {} terms in {}ms",
+            index.size(), index.termCount(), System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * Add or replace a resource in the index. The resource's course must be loaded.
+     */
+    public void index(Resource resource) {
+        indexer(resource).run();
+    }
+    
+    public void remove(Long resourceId) {
+        index.remove(resourceId);
+    }
+    
+    // Terms are taken from the resource now; a rolled back save never reaches the index
+    public void indexAfterCommit(Resource resource) {
+        AfterCommit.run(indexer(resource));
+    }
+    
+    public void removeAfterCommit(Long resourceId) {
+        AfterCommit.run(() -> remove(resourceId));
+    }
+    
+    private Runnable indexer(Resource resource) {
+        Course course = resource.getCourse();
+        InvertedIndex.Terms terms = new InvertedIndex.Terms()
+            .add(resource.getTitle(), TITLE_WEIGHT)
+            .add(course.getCourseCode(), COURSE_CODE_WEIGHT)
+            // "cse201" should find "CSE-201" too
+            .addTerm(TextAnalyzer.compact(course.getCourseCode()), COURSE_CODE_WEIGHT)
+            .add(course.getCourseName(), COURSE_NAME_WEIGHT)
+            .add(resource.getResourceType() != null ? resource.getResourceType().name() : null, TYPE_WEIGHT)
+            .add(resource.getDescription(), DESCRIPTION_WEIGHT);
+        long recency = resource.getCreatedAt() != null ? resource.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        Long resourceId = resource.getResourceId();
+        String scope = scope(resource.getBatch(), resource.getDeptCode());
+        return () -> index.put(resourceId, scope, recency, terms);
+    }
+    
+    public ResourceSearchResponse search(User user, String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        
+        if (!ready) {
+            // Index still loading right after startup: fall back to the title-only database search
+            List<ResourceResponse> matches = resourceRepository.searchByTitle(user.getBatch(), user.getDepartment(), query);
+            int from = Math.min(pageNumber * pageSize, matches.size());
+            int to = Math.min(from + pageSize, matches.size());
+            return new ResourceSearchResponse(new ArrayList<>(matches.subList(from, to)), pageNumber, pageSize,
+                matches.size(), to < matches.size());
+        }
+        
+        List<InvertedIndex.Hit> hits = index.search(query, scope(user.getBatch(), user.getDepartment()));
+        int from = (int) Math.min((long) pageNumber * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        
+        List<Long> ids = new ArrayList<>(to - from);
+        for (InvertedIndex.Hit hit : hits.subList(from, to)) {
+            ids.add(hit.getId());
+        }
+        
+        List<ResourceResponse> resources = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, ResourceResponse> byId = new HashMap<>();
+            for (ResourceResponse response : resourceRepository.findResponsesByIds(ids)) {
+                byId.put(response.getResourceId(), response);
+            }
+            // Keep the ranking order; skip anything deleted since the search ran
+            for (Long id : ids) {
+                ResourceResponse response = byId.get(id);
+                if (response != null) {
+                    resources.add(response);
+                }
+            }
+        }
+        return new ResourceSearchResponse(resources, pageNumber, pageSize, hits.size(), to < hits.size());
+    }
+    
+    @Override
+    public String getStatsName() {
+        return "resourceSearch";
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("documents", index.size());
+        stats.put("terms", index.termCount());
+        return stats;
+    }
+    
+    private String scope(String batch, String deptCode) {
+        return batch + ":" + deptCode;
+    }
+}
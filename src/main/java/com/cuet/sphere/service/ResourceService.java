@@ -4,12 +4,15 @@ import com.cuet.sphere.model.*;
 import com.cuet.sphere.repository.*;
 import com.cuet.sphere.response.ResourceRequest;
 import com.cuet.sphere.response.ResourceResponse;
+import com.cuet.sphere.response.ResourceSearchResponse;
 import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.service.ReferenceDataService.CourseRef;
+import com.cuet.sphere.service.ReferenceDataService.SemesterRef;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ResourceService {
@@ -18,14 +21,18 @@ public class ResourceService {
     private ResourceRepository resourceRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private ReferenceDataService referenceDataService;
     
     @Autowired
-    private SemesterRepository semesterRepository;
+    private DepartmentRegistry departmentRegistry;
     
     @Autowired
-    private DepartmentRepository departmentRepository;
+    private ResourceSearchService resourceSearchService;
     
+    @Autowired
+    private S3Service s3Service;
+    
+    @Transactional(rollbackFor = Exception.class)
     public ResourceResponse createResource(ResourceRequest resourceRequest, User uploader) throws UserException {
         // Check if uploader is CR
         if (!uploader.isCR()) {
@@ -33,20 +40,23 @@ public class ResourceService {
         }
         
         // Find course
-        Course course = courseRepository.findByCourseCode(resourceRequest.getCourseCode());
+        CourseRef course = referenceDataService.findCourse(resourceRequest.getCourseCode());
         if (course == null) {
             throw new UserException("Course not found with code: " + resourceRequest.getCourseCode());
         }
         
         // Check if course belongs to uploader's department
         // Convert department code to department name for comparison
-        String uploaderDeptName = getDepartmentNameByCode(uploader.getDepartment());
-        if (!course.getDepartment().getDeptName().equals(uploaderDeptName)) {
-            throw new UserException("You can only upload resources for your department. Your department code: " + uploader.getDepartment() + " (" + uploaderDeptName + "), Course department: " + course.getDepartment().getDeptName());
+        String uploaderDeptName = departmentRegistry.nameForCode(uploader.getDepartment());
+        if (uploaderDeptName == null) {
+            throw new UserException("Unknown department code: " + uploader.getDepartment());
+        }
+        if (!course.getDepartmentName().equals(uploaderDeptName)) {
+            throw new UserException("You can only upload resources for your department. Your department code: " + uploader.getDepartment() + " (" + uploaderDeptName + "), Course department: " + course.getDepartmentName());
         }
         
         // Find semester
-        Semester semester = semesterRepository.findBySemesterName(resourceRequest.getSemesterName());
+        SemesterRef semester = referenceDataService.findSemester(resourceRequest.getSemesterName());
         if (semester == null) {
             throw new UserException("Semester not found: " + resourceRequest.getSemesterName());
         }
@@ -57,14 +67,20 @@ public class ResourceService {
         resource.setDescription(resourceRequest.getDescription());
         resource.setResourceType(resourceRequest.getResourceType());
         resource.setBatch(uploader.getBatch());
+        resource.setDeptCode(uploader.getDepartment());
         resource.setUploader(uploader);
-        resource.setCourse(course);
-        resource.setSemester(semester);
+        resource.setCourse(course.toEntity());
+        resource.setSemester(semester.toEntity());
         
         Resource savedResource = resourceRepository.save(resource);
+        if (savedResource.getFilePath() != null && !savedResource.getFilePath().isEmpty()) {
+            s3Service.retainFile(savedResource.getFilePath());
+        }
+        resourceSearchService.indexAfterCommit(savedResource);
         return convertToResponse(savedResource);
     }
     
+    @Transactional(rollbackFor = Exception.class)
     public ResourceResponse updateResource(Long resourceId, ResourceRequest resourceRequest, User user) throws UserException {
         Resource resource = resourceRepository.findById(resourceId)
             .orElseThrow(() -> new UserException("Resource not found"));
@@ -74,30 +90,45 @@ public class ResourceService {
             throw new UserException("You can only edit your own resources");
         }
         
-        // Find course if course code is being updated
-        if (resourceRequest.getCourseCode() != null && !resourceRequest.getCourseCode().equals(resource.getCourse().getCourseCode())) {
-            Course course = courseRepository.findByCourseCode(resourceRequest.getCourseCode());
+        // Find course if course code is being updated (compared by id so the current course isn't loaded)
+        if (resourceRequest.getCourseCode() != null) {
+            CourseRef course = referenceDataService.findCourse(resourceRequest.getCourseCode());
             if (course == null) {
                 throw new UserException("Course not found with code: " + resourceRequest.getCourseCode());
             }
-            resource.setCourse(course);
+            if (!course.getId().equals(resource.getCourse().getCourseId())) {
+                // The stored department code must keep matching the course's department
+                String deptName = departmentRegistry.nameForCode(resource.getDeptCode());
+                if (deptName == null) {
+                    throw new UserException("Unknown department code: " + resource.getDeptCode());
+                }
+                if (!course.getDepartmentName().equals(deptName)) {
+                    throw new UserException("Course " + course.getCode() + " does not belong to department " + resource.getDeptCode() + " (" + deptName + ")");
+                }
+                resource.setCourse(course.toEntity());
+            }
         }
         
         // Find semester if semester is being updated
-        if (resourceRequest.getSemesterName() != null && !resourceRequest.getSemesterName().equals(resource.getSemester().getSemesterName())) {
-            Semester semester = semesterRepository.findBySemesterName(resourceRequest.getSemesterName());
+        if (resourceRequest.getSemesterName() != null) {
+            SemesterRef semester = referenceDataService.findSemester(resourceRequest.getSemesterName());
             if (semester == null) {
                 throw new UserException("Semester not found: " + resourceRequest.getSemesterName());
             }
-            resource.setSemester(semester);
+            if (!semester.getId().equals(resource.getSemester().getSemesterId())) {
+                resource.setSemester(semester.toEntity());
+            }
         }
         
         // Update other fields
         if (resourceRequest.getTitle() != null) {
             resource.setTitle(resourceRequest.getTitle());
         }
-        if (resourceRequest.getFilePath() != null) {
+        String replacedFilePath = null;
+        if (resourceRequest.getFilePath() != null && !resourceRequest.getFilePath().equals(resource.getFilePath())) {
+            replacedFilePath = resource.getFilePath();
             resource.setFilePath(resourceRequest.getFilePath());
+            s3Service.retainFile(resource.getFilePath());
         }
         if (resourceRequest.getDescription() != null) {
             resource.setDescription(resourceRequest.getDescription());
@@ -107,9 +138,12 @@ public class ResourceService {
         }
         
         Resource updatedResource = resourceRepository.save(resource);
+        resourceSearchService.indexAfterCommit(updatedResource);
+        s3Service.releaseFileAfterCommit(replacedFilePath);
         return convertToResponse(updatedResource);
     }
     
+    @Transactional(rollbackFor = Exception.class)
     public void deleteResource(Long resourceId, User user) throws UserException {
         Resource resource = resourceRepository.findById(resourceId)
             .orElseThrow(() -> new UserException("Resource not found"));
@@ -120,42 +154,24 @@ public class ResourceService {
         }
         
         resourceRepository.delete(resource);
+        resourceSearchService.removeAfterCommit(resourceId);
+        s3Service.releaseFileAfterCommit(resource.getFilePath());
     }
     
     public List<ResourceResponse> getResourcesByUser(User user) {
-        // Convert department code to name for repository query
-        String deptName = getDepartmentNameByCode(user.getDepartment());
-        List<Resource> resources = resourceRepository.findByBatchAndDepartment(user.getBatch(), deptName);
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findByBatchAndDepartment(user.getBatch(), user.getDepartment());
     }
     
     public List<ResourceResponse> getResourcesByUserAndCourse(User user, String courseCode) {
-        // Convert department code to name for repository query
-        String deptName = getDepartmentNameByCode(user.getDepartment());
-        List<Resource> resources = resourceRepository.findByBatchAndDepartmentAndCourse(user.getBatch(), deptName, courseCode);
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findByBatchAndDepartmentAndCourse(user.getBatch(), user.getDepartment(), courseCode);
     }
     
     public List<ResourceResponse> getResourcesByUserAndCourseAndSemester(User user, String courseCode, String semester) {
-        // Convert department code to name for repository query
-        String deptName = getDepartmentNameByCode(user.getDepartment());
-        List<Resource> resources = resourceRepository.findByBatchAndDepartmentAndCourseAndSemester(user.getBatch(), deptName, courseCode, semester);
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findByBatchAndDepartmentAndCourseAndSemester(user.getBatch(), user.getDepartment(), courseCode, semester);
     }
     
     public List<ResourceResponse> getResourcesByUserAndType(User user, Resource.ResourceType resourceType) {
-        // Convert department code to name for repository query
-        String deptName = getDepartmentNameByCode(user.getDepartment());
-        List<Resource> resources = resourceRepository.findByBatchAndDepartmentAndResourceType(user.getBatch(), deptName, resourceType);
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findByBatchAndDepartmentAndResourceType(user.getBatch(), user.getDepartment(), resourceType);
     }
     
     public List<ResourceResponse> getResourcesByUploader(User uploader) throws UserException {
@@ -163,32 +179,24 @@ public class ResourceService {
             throw new UserException("Only CR users can view their uploaded resources");
         }
         
-        List<Resource> resources = resourceRepository.findByUploaderId(uploader.getId());
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findByUploaderId(uploader.getId());
     }
     
     public ResourceResponse getResourceById(Long resourceId, User user) throws UserException {
-        Resource resource = resourceRepository.findById(resourceId)
+        ResourceResponse resource = resourceRepository.findResponseById(resourceId)
             .orElseThrow(() -> new UserException("Resource not found"));
         
         // Check if user can access this resource (same batch and department)
-        String userDeptName = getDepartmentNameByCode(user.getDepartment());
-        if (!resource.getBatch().equals(user.getBatch()) || !resource.getCourse().getDepartment().getDeptName().equals(userDeptName)) {
+        String userDeptName = departmentRegistry.nameForCode(user.getDepartment());
+        if (!resource.getBatch().equals(user.getBatch()) || !resource.getDepartmentName().equals(userDeptName)) {
             throw new UserException("Access denied: Resource not for your batch/department");
         }
         
-        return convertToResponse(resource);
+        return resource;
     }
     
-    public List<ResourceResponse> searchResources(User user, String searchTerm) {
-        // Convert department code to name for repository query
-        String deptName = getDepartmentNameByCode(user.getDepartment());
-        List<Resource> resources = resourceRepository.searchByTitle(user.getBatch(), deptName, searchTerm);
-        return resources.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    public ResourceSearchResponse searchResources(User user, String searchTerm, int page, int size) {
+        return resourceSearchService.search(user, searchTerm, page, size);
     }
     
     private ResourceResponse convertToResponse(Resource resource) {
@@ -216,31 +224,4 @@ public class ResourceService {
         
         return response;
     }
-    
-    /**
-     * Helper method to convert department codes to department names
-     * Based on CUET department codes
-     */
-    private String getDepartmentNameByCode(String deptCode) {
-        switch (deptCode) {
-            case "01": return "Civil Engineering";
-            case "02": return "Mechanical Engineering";
-            case "03": return "Electrical & Electronics Engineering";
-            case "04": return "Computer Science & Engineering";
-            case "05": return "Water Resources Engineering";
-            case "06": return "Petroleum & Mining Engineering";
-            case "07": return "Mechatronics and Industrial Engineering";
-            case "08": return "Electronics & Telecommunication Engineering";
-            case "09": return "Urban & Regional Planning";
-            case "10": return "Architecture";
-            case "11": return "Biomedical Engineering";
-            case "12": return "Nuclear Engineering";
-            case "13": return "Materials Science & Engineering";
-            case "14": return "Physics";
-            case "15": return "Chemistry";
-            case "16": return "Mathematics";
-            case "17": return "Humanities";
-            default: return "Unknown Department";
-        }
-    }
 }
@@ -0,0 +1,201 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.StorageBusyException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking S3 storage for the upload endpoints. Every call returns a CompletableFuture,
+ * so the request thread is free as soon as the transfer starts.
+ *
+ * At most max-in-flight calls run against S3 at once. Further calls wait in a bounded queue and
+ * start as running ones finish; once the queue is full too, calls fail straight away with
+ * StorageBusyException instead of piling up.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3AsyncStorageService {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+    private final String bucketUrl;
+    private final int maxInFlight;
+    private final int maxQueued;
+    // Feeds multipart temp files into request bodies; at most one read per in-flight upload
+    private final ThreadPoolExecutor readExecutor;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public S3AsyncStorageService(S3AsyncClient s3AsyncClient,
+                                 @Value("${aws.s3.bucket.name}") String bucketName,
+                                 @Value("${aws.s3.bucket.url}") String bucketUrl,
+                                 @Value("${aws.s3.async.max-in-flight:16}") int maxInFlight,
+                                 @Value("${aws.s3.async.max-queued:64}") int maxQueued) {
+        AtomicInteger counter = new AtomicInteger();
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+        this.bucketUrl = bucketUrl;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.readExecutor = new ThreadPoolExecutor(
+                this.maxInFlight, this.maxInFlight,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-read-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.readExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<Void> deleteObject(String key) {
+        return submit(() -> s3AsyncClient.deleteObject(builder -> builder.bucket(bucketName).key(key))
+                .thenApply(response -> null));
+    }
+
+    /**
+     * Upload under the given key; completes with its public URL.
+     */
+    public CompletableFuture<String> upload(MultipartFile file, String key) {
+        return submit(() -> {
+            InputStream in;
+            try {
+                in = file.getInputStream();
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(file.getContentType())
+                    .build();
+            return s3AsyncClient.putObject(request, AsyncRequestBody.fromInputStream(in, file.getSize(), readExecutor))
+                    .whenComplete((response, error) -> closeQuietly(in))
+                    .thenApply(response -> bucketUrl + "/" + key);
+        });
+    }
+
+    /**
+     * Upload bytes already in memory, such as a generated image variant; completes with its public URL.
+     */
+    public CompletableFuture<String> uploadBytes(String key, String contentType, byte[] bytes) {
+        return submit(() -> {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build();
+            return s3AsyncClient.putObject(request, AsyncRequestBody.fromBytes(bytes))
+                    .thenApply(response -> bucketUrl + "/" + key);
+        });
+    }
+
+    // Runs the operation now if under the in-flight limit, queues it if there is room, otherwise rejects it
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> call;
+            try {
+                call = operation.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    failed.incrementAndGet();
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    completed.incrementAndGet();
+                    result.complete(value);
+                }
+            });
+        };
+
+        synchronized (lock) {
+            if (inFlight >= maxInFlight) {
+                if (waiting.size() >= maxQueued) {
+                    rejected.incrementAndGet();
+                    return CompletableFuture.failedFuture(
+                            new StorageBusyException("Too many uploads in progress, please try again shortly"));
+                }
+                waiting.add(start);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    // A finished call hands its slot straight to the next queued one
+    private void release() {
+        Runnable next;
+        synchronized (lock) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing useful to do; the upload itself already finished
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("inFlight", inFlight);
+            stats.put("queued", waiting.size());
+        }
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("maxQueued", maxQueued);
+        stats.put("completed", completed.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readExecutor.shutdownNow();
+    }
+}
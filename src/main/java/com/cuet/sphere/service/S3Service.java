@@ -1,82 +1,88 @@
 package com.cuet.sphere.service;
 
+import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.util.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Entry point for storing and removing notice files. Despite the name, the bytes go to whichever
+ * StorageBackend storage.backend selects: the S3 bucket or a local directory.
+ */
 @Service
 public class S3Service {
 
     @Autowired
-    private S3Client s3Client;
+    private StorageBackend storageBackend;
 
-    @Value("${aws.s3.bucket.name}")
-    private String bucketName;
-
-    @Value("${aws.s3.bucket.url}")
-    private String bucketUrl;
-
-    public String uploadFile(MultipartFile file) throws IOException {
-        // Generate unique file name to avoid conflicts
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String fileName = "notices/" + UUID.randomUUID().toString() + fileExtension;
+    @Autowired
+    private ContentAddressedStore contentStore;
 
-        // Upload file to S3
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(fileName)
-                .contentType(file.getContentType())
-                .build();
+    /**
+     * Upload a notice attachment under a fresh key; completes with its public URL.
+     */
+    public CompletableFuture<String> uploadAttachment(MultipartFile file) {
+        return storageBackend.upload(file, newAttachmentKey(file.getOriginalFilename()));
+    }
 
-        PutObjectResponse response = s3Client.putObject(putObjectRequest, 
-                RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+    /**
+     * Stream a notice attachment to storage without buffering it whole; fails once more than maxBytes arrive.
+     */
+    public String uploadStream(InputStream in, String originalFilename, String contentType, long maxBytes)
+            throws IOException, UserException {
+        String fileName = newAttachmentKey(originalFilename);
+        storageBackend.uploadStream(in, fileName, contentType, maxBytes);
 
         // Return the public URL of the uploaded file
-        return bucketUrl + "/" + fileName;
+        return storageBackend.urlFor(fileName);
     }
 
-    public String uploadFile(MultipartFile file, String fileName) throws IOException {
-        // Upload file to S3 with custom filename
-        String key = "profile/" + fileName;
-
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
+    /**
+     * Count a notice or resource that now links to this file; call it in the transaction that saves
+     * the link. Files outside the content-addressed store aren't counted.
+     */
+    public void retainFile(String fileUrl) throws UserException {
+        String key = storageBackend.keyOf(fileUrl);
+        if (key == null || !contentStore.isContentAddressed(key)) {
+            return;
+        }
+        if (!contentStore.retain(key)) {
+            throw new UserException("Attachment is no longer available, upload it again");
+        }
+    }
 
-        PutObjectResponse response = s3Client.putObject(putObjectRequest, 
-                RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+    /**
+     * Drop a link to this file once the notice or resource holding it has been deleted. A shared
+     * attachment goes with its last link; anything else is left for the orphan collector, which
+     * checks every reference before deleting.
+     */
+    public void releaseFile(String fileUrl) {
+        String key = storageBackend.keyOf(fileUrl);
+        if (key != null && contentStore.isContentAddressed(key)) {
+            contentStore.release(key);
+        }
+    }
 
-        // Return the public URL of the uploaded file
-        return bucketUrl + "/" + key;
+    // Releases once the current transaction commits, so a rolled back delete keeps its file
+    public void releaseFileAfterCommit(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> releaseFile(fileUrl));
     }
 
-    public void deleteFile(String fileUrl) {
-        if (fileUrl != null && fileUrl.startsWith(bucketUrl)) {
-            String key = fileUrl.substring(bucketUrl.length() + 1); // Remove the bucket URL and leading slash
-            
-            try {
-                s3Client.deleteObject(builder -> builder
-                        .bucket(bucketName)
-                        .key(key)
-                        .build());
-            } catch (Exception e) {
-                // Log the error but don't throw it to avoid breaking the application
-                System.err.println("Error deleting file from S3: " + e.getMessage());
-            }
+    // Generate unique file name to avoid conflicts
+    private static String newAttachmentKey(String originalFilename) {
+        String fileExtension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
         }
+        return "notices/" + UUID.randomUUID() + fileExtension;
     }
 }
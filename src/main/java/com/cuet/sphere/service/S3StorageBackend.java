@@ -0,0 +1,159 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Files in the S3 bucket, served by S3 at aws.s3.bucket.url. Uploads go through the non-blocking
+ * S3AsyncStorageService, streams through S3StreamingUploader.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3StorageBackend implements StorageBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageBackend.class);
+
+    // The most keys one DeleteObjects call accepts
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    @Autowired
+    private S3Client s3Client;
+
+    @Autowired
+    private S3AsyncStorageService asyncStorageService;
+
+    @Autowired
+    private S3StreamingUploader streamingUploader;
+
+    @Value("${aws.s3.bucket.name}")
+    private String bucketName;
+
+    @Value("${aws.s3.bucket.url}")
+    private String bucketUrl;
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public CompletableFuture<String> upload(MultipartFile file, String key) {
+        return asyncStorageService.upload(file, key);
+    }
+
+    @Override
+    public CompletableFuture<String> uploadBytes(String key, String contentType, byte[] bytes) {
+        return asyncStorageService.uploadBytes(key, contentType, bytes);
+    }
+
+    @Override
+    public void uploadStream(InputStream in, String key, String contentType, long maxBytes) throws IOException, UserException {
+        streamingUploader.upload(in, key, contentType, maxBytes);
+    }
+
+    @Override
+    public void copy(String sourceKey, String targetKey, String contentType) throws IOException {
+        try {
+            s3Client.copyObject(builder -> builder
+                    .sourceBucket(bucketName)
+                    .sourceKey(sourceKey)
+                    .destinationBucket(bucketName)
+                    .destinationKey(targetKey)
+                    .contentType(contentType)
+                    .metadataDirective("REPLACE"));
+        } catch (SdkException e) {
+            throw new IOException("S3 copy failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3Client.headObject(builder -> builder.bucket(bucketName).key(key)).contentLength();
+        } catch (SdkException e) {
+            throw new IOException("S3 head failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return asyncStorageService.deleteObject(key);
+    }
+
+    @Override
+    public Set<String> deleteAll(List<String> keys) throws IOException {
+        Set<String> failed = new HashSet<>();
+        for (int from = 0; from < keys.size(); from += DELETE_BATCH_SIZE) {
+            List<ObjectIdentifier> batch = new ArrayList<>();
+            for (String key : keys.subList(from, Math.min(keys.size(), from + DELETE_BATCH_SIZE))) {
+                batch.add(ObjectIdentifier.builder().key(key).build());
+            }
+            try {
+                // Quiet mode: the response only lists the keys that failed
+                DeleteObjectsResponse response = s3Client.deleteObjects(builder -> builder
+                        .bucket(bucketName)
+                        .delete(delete -> delete.objects(batch).quiet(true)));
+                for (S3Error error : response.errors()) {
+                    logger.warn("Error deleting {} from S3: {}", error.key(), error.message());
+                    failed.add(error.key());
+                }
+            } catch (SdkException e) {
+                throw new IOException("S3 batch delete failed: " + e.getMessage(), e);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void forEachObject(String prefix, Consumer<StoredObject> consumer) throws IOException {
+        try {
+            s3Client.listObjectsV2Paginator(builder -> builder.bucket(bucketName).prefix(prefix))
+                    .contents()
+                    .forEach(object -> consumer.accept(new StoredObject(object.key(), object.size(), object.lastModified())));
+        } catch (SdkException e) {
+            throw new IOException("S3 listing failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return bucketUrl + "/" + key;
+    }
+
+    @Override
+    public String keyOf(String url) {
+        return url != null && url.startsWith(bucketUrl + "/") ? url.substring(bucketUrl.length() + 1) : null;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", getName());
+        stats.put("bucket", bucketName);
+        stats.put("uploads", streamingUploader.getStats());
+        stats.put("asyncStorage", asyncStorageService.getStats());
+        return stats;
+    }
+}
@@ -0,0 +1,348 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies an input stream to S3 one part at a time, so an upload never has to be held in memory whole.
+ * The stream is read into fixed-size part buffers on the caller's thread and each full buffer is sent
+ * as a multipart upload part on a small worker pool, up to a few parts at once per upload.
+ * Part buffers come from a shared pool with a fixed cap, so a burst of uploads waits for buffers
+ * instead of growing the heap. Anything that fits in a single part is sent with one PutObject.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3StreamingUploader {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StreamingUploader.class);
+
+    // S3 rejects smaller parts, except for the last one
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final int partSize;
+    private final int parallelism;
+    private final int maxBuffers;
+    private final long bufferWaitMillis;
+    private final Semaphore bufferPermits;
+    private final ConcurrentLinkedQueue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicInteger activeUploads = new AtomicInteger();
+    private final AtomicLong singlePartUploads = new AtomicLong();
+    private final AtomicLong multipartUploads = new AtomicLong();
+    private final AtomicLong failedUploads = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+
+    @Autowired
+    public S3StreamingUploader(S3Client s3Client,
+                               @Value("${aws.s3.bucket.name}") String bucketName,
+                               @Value("${aws.s3.upload.part-size-bytes:5242880}") int partSize,
+                               @Value("${aws.s3.upload.parallelism:4}") int parallelism,
+                               @Value("${aws.s3.upload.max-buffers:8}") int maxBuffers,
+                               @Value("${aws.s3.upload.buffer-wait-millis:30000}") long bufferWaitMillis) {
+        AtomicInteger counter = new AtomicInteger();
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.maxBuffers = Math.max(2, maxBuffers);
+        this.bufferWaitMillis = bufferWaitMillis;
+        this.bufferPermits = new Semaphore(this.maxBuffers);
+        // Every queued or running part holds a buffer, so the buffer cap also bounds this pool's work
+        this.executor = new ThreadPoolExecutor(
+                this.maxBuffers, this.maxBuffers,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.maxBuffers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Upload everything the stream holds to the given key.
+     * Fails with a UserException, and leaves nothing behind in S3, once more than maxBytes have been read.
+     * The stream is not closed.
+     */
+    public void upload(InputStream in, String key, String contentType, long maxBytes) throws IOException, UserException {
+        activeUploads.incrementAndGet();
+        try {
+            byte[] first = borrowBuffer();
+            int firstLength;
+            try {
+                firstLength = readFully(in, first);
+            } catch (IOException e) {
+                releaseBuffer(first);
+                throw e;
+            }
+
+            if (firstLength < partSize) {
+                try {
+                    checkSize(firstLength, maxBytes);
+                    putSingle(key, contentType, first, firstLength);
+                } finally {
+                    releaseBuffer(first);
+                }
+                singlePartUploads.incrementAndGet();
+            } else {
+                uploadParts(in, key, contentType, maxBytes, first);
+                multipartUploads.incrementAndGet();
+            }
+        } catch (IOException | UserException | RuntimeException e) {
+            failedUploads.incrementAndGet();
+            throw e;
+        } finally {
+            activeUploads.decrementAndGet();
+        }
+    }
+
+    private void putSingle(String key, String contentType, byte[] buffer, int length) throws IOException {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        try {
+            s3Client.putObject(request, body(buffer, length));
+        } catch (RuntimeException e) {
+            throw new IOException("S3 upload failed: " + e.getMessage(), e);
+        }
+        uploadedBytes.addAndGet(length);
+    }
+
+    // Called with a full first buffer, which this method takes ownership of
+    private void uploadParts(InputStream in, String key, String contentType, long maxBytes, byte[] first)
+            throws IOException, UserException {
+        String uploadId;
+        try {
+            uploadId = s3Client.createMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)).uploadId();
+        } catch (RuntimeException e) {
+            releaseBuffer(first);
+            throw new IOException("S3 upload failed: " + e.getMessage(), e);
+        }
+
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        byte[] buffer = first;
+        int length = partSize;
+        long total = length;
+        boolean completed = false;
+        try {
+            checkSize(total, maxBytes);
+            int partNumber = 1;
+            while (true) {
+                acquire(inFlight);
+                // The part task releases the buffer from here on
+                byte[] full = buffer;
+                buffer = null;
+                parts.add(submitPart(key, uploadId, partNumber++, full, length, inFlight, aborted));
+
+                buffer = borrowBuffer();
+                length = readFully(in, buffer);
+                if (length == 0) {
+                    break;
+                }
+                total += length;
+                checkSize(total, maxBytes);
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completedParts.add(await(part));
+            }
+            s3Client.completeMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completedParts)));
+            completed = true;
+        } catch (RuntimeException e) {
+            throw new IOException("S3 upload failed: " + e.getMessage(), e);
+        } finally {
+            if (buffer != null) {
+                releaseBuffer(buffer);
+            }
+            if (!completed) {
+                abort(key, uploadId, parts, aborted);
+            }
+        }
+    }
+
+    private Future<CompletedPart> submitPart(String key, String uploadId, int partNumber, byte[] buffer, int length,
+                                             Semaphore inFlight, AtomicBoolean aborted) throws IOException {
+        try {
+            return executor.submit(() -> {
+                try {
+                    if (aborted.get()) {
+                        throw new IOException("Upload aborted");
+                    }
+                    UploadPartRequest request = UploadPartRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) length)
+                            .build();
+                    UploadPartResponse response = s3Client.uploadPart(request, body(buffer, length));
+                    uploadedBytes.addAndGet(length);
+                    return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+                } finally {
+                    releaseBuffer(buffer);
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseBuffer(buffer);
+            inFlight.release();
+            throw new IOException("Upload pool is busy, please try again shortly");
+        }
+    }
+
+    // Lets parts already queued finish or skip, so their buffers go back to the pool, then drops the upload
+    private void abort(String key, String uploadId, List<Future<CompletedPart>> parts, AtomicBoolean aborted) {
+        aborted.set(true);
+        for (Future<CompletedPart> part : parts) {
+            try {
+                part.get();
+            } catch (ExecutionException e) {
+                // Already failing; the first error is the one reported
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        try {
+            s3Client.abortMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId));
+        } catch (RuntimeException e) {
+            logger.warn("Error aborting multipart upload {} for {}", uploadId, key, e);
+        }
+    }
+
+    private CompletedPart await(Future<CompletedPart> part) throws IOException {
+        try {
+            return part.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("S3 upload failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    private void checkSize(long total, long maxBytes) throws UserException {
+        if (total > maxBytes) {
+            throw new UserException("File size exceeds " + (maxBytes / (1024 * 1024)) + "MB limit");
+        }
+    }
+
+    private void acquire(Semaphore semaphore) throws IOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    private byte[] borrowBuffer() throws IOException {
+        try {
+            if (!bufferPermits.tryAcquire(bufferWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many uploads in progress, please try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    private static RequestBody body(byte[] buffer, int length) {
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length,
+                "application/octet-stream");
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("partSizeBytes", partSize);
+        stats.put("parallelism", parallelism);
+        stats.put("maxBuffers", maxBuffers);
+        stats.put("buffersInUse", maxBuffers - bufferPermits.availablePermits());
+        stats.put("activeUploads", activeUploads.get());
+        stats.put("singlePartUploads", singlePartUploads.get());
+        stats.put("multipartUploads", multipartUploads.get());
+        stats.put("failedUploads", failedUploads.get());
+        stats.put("uploadedBytes", uploadedBytes.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
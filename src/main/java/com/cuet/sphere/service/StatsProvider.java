@@ -0,0 +1,14 @@
+package com.cuet.sphere.service;
+
+import java.util.Map;
+
+/**
+ * A component that reports its own counters. GET /api/admin/cache-stats collects every
+ * StatsProvider bean and lists each one's stats under its name.
+ */
+public interface StatsProvider {
+
+    String getStatsName();
+
+    Map<String, Object> getStats();
+}
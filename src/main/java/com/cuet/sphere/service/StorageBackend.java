@@ -0,0 +1,93 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Where uploaded files live. Keys are paths such as notices/uuid.pdf or profile/x_thumb.jpg, and
+ * every stored object is reachable at urlFor(key). Chosen with storage.backend: "s3" (the default)
+ * or "local" for a directory on this server's disk.
+ */
+public interface StorageBackend extends StatsProvider {
+
+    /**
+     * "s3" or "local", as set in storage.backend.
+     */
+    String getName();
+
+    /**
+     * Store a multipart file under key; completes with its public URL.
+     */
+    CompletableFuture<String> upload(MultipartFile file, String key);
+
+    /**
+     * Store bytes already in memory under key; completes with its public URL.
+     */
+    CompletableFuture<String> uploadBytes(String key, String contentType, byte[] bytes);
+
+    /**
+     * Store a stream of unknown length under key, failing with UserException once more than maxBytes arrive.
+     */
+    void uploadStream(InputStream in, String key, String contentType, long maxBytes) throws IOException, UserException;
+
+    void copy(String sourceKey, String targetKey, String contentType) throws IOException;
+
+    long size(String key) throws IOException;
+
+    CompletableFuture<Void> delete(String key);
+
+    /**
+     * Delete many keys in as few calls as the backend allows; returns the keys that could not be deleted.
+     */
+    Set<String> deleteAll(List<String> keys) throws IOException;
+
+    /**
+     * Hand every object whose key starts with prefix to consumer, without loading the whole listing at once.
+     */
+    void forEachObject(String prefix, Consumer<StoredObject> consumer) throws IOException;
+
+    String urlFor(String key);
+
+    /**
+     * Key of an object given its public URL, or null if the URL isn't one of ours.
+     */
+    String keyOf(String url);
+
+    @Override
+    default String getStatsName() {
+        return "storage";
+    }
+
+    final class StoredObject {
+        private final String key;
+        private final long size;
+        private final Instant lastModified;
+
+        public StoredObject(String key, long size, Instant lastModified) {
+            this.key = key;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public Instant getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cuet.sphere.service;
 
+import com.cuet.sphere.event.UserChangedEvent;
 import com.cuet.sphere.model.User;
 import com.cuet.sphere.repository.UserRepository;
 import com.cuet.sphere.response.CrAssignmentRequest;
@@ -7,9 +8,11 @@ import com.cuet.sphere.response.CrAssignmentResponse;
 import com.cuet.sphere.exception.UserException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,6 +21,15 @@ public class SystemAdminService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+    
     @Value("${system.admin.email:u2204001@student.cuet.ac.bd}")
     private String systemAdminEmail;
     
@@ -31,6 +43,9 @@ public class SystemAdminService {
         if (request.getUserEmail() == null || request.getDepartment() == null || request.getBatch() == null) {
             throw new UserException("All fields are required: userEmail, department, batch");
         }
+        if (!departmentRegistry.isKnownCode(request.getDepartment())) {
+            throw new UserException("Unknown department code: " + request.getDepartment());
+        }
         
         // Find the user to assign CR role
         Optional<User> userOpt = userRepository.findByEmail(request.getUserEmail());
@@ -53,6 +68,7 @@ public class SystemAdminService {
         // Assign CR role
         user.setRole(User.Role.CR);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user));
         
         // Create response
         CrAssignmentResponse response = new CrAssignmentResponse();
@@ -88,6 +104,7 @@ public class SystemAdminService {
         // Remove CR role (set back to STUDENT)
         user.setRole(User.Role.STUDENT);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user));
         
         // Create response
         CrAssignmentResponse response = new CrAssignmentResponse();
@@ -115,22 +132,33 @@ public class SystemAdminService {
         if (!isSystemAdmin(adminUser)) {
             throw new UserException("Access denied: Only system administrators can view users by department/batch");
         }
+        if (!departmentRegistry.isKnownCode(department)) {
+            throw new UserException("Unknown department code: " + department);
+        }
         
         return userRepository.findByDepartmentAndBatch(department, batch);
     }
     
+    public List<Map<String, Object>> getDepartments(User adminUser) throws UserException {
+        if (!isSystemAdmin(adminUser)) {
+            throw new UserException("Access denied: Only system administrators can view departments");
+        }
+        
+        return departmentRegistry.list();
+    }
+    
     public User getUserByEmail(String email, User adminUser) throws UserException {
         // Check if the user is system admin
         if (!isSystemAdmin(adminUser)) {
             throw new UserException("Access denied: Only system administrators can view user details");
         }
         
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isEmpty()) {
+        User user = userCacheService.findUserByEmail(email);
+        if (user == null) {
             throw new UserException("User not found with email: " + email);
         }
         
-        return userOpt.get();
+        return user;
     }
     
     public boolean isSystemAdmin(User user) {
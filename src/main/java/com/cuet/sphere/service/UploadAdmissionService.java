@@ -0,0 +1,237 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UploadRejectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether an upload may start, before any of its body is read. Three limits apply:
+ * the bytes of all uploads in progress together, the uploads one user has in progress, and
+ * the bytes one user may upload per day. An upload is charged its declared Content-Length, or
+ * max-upload-bytes when it doesn't declare one. A refused upload fails at once rather than
+ * waiting, and the rejection says how long to wait before trying again.
+ *
+ * There is deliberately no queue: a waiting upload would still hold its connection and leave its
+ * body in the socket buffers, which is the load this is meant to shed. So there are no queued
+ * bytes to report; rejectedBytes counts what was turned away and inFlightBytes what was let in.
+ */
+@Service
+public class UploadAdmissionService implements StatsProvider {
+
+    private final long maxInFlightBytes;
+    private final int maxConcurrentPerUser;
+    private final long dailyBytesPerUser;
+    private final long maxUploadBytes;
+    private final long retryAfterSeconds;
+    private final Clock clock;
+
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final Map<String, Usage> usageByUser = new ConcurrentHashMap<>();
+    private volatile LocalDate today;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong admittedBytes = new AtomicLong();
+    private final AtomicLong peakInFlightBytes = new AtomicLong();
+    private final AtomicLong rejectedBusy = new AtomicLong();
+    private final AtomicLong rejectedConcurrent = new AtomicLong();
+    private final AtomicLong rejectedDaily = new AtomicLong();
+    private final AtomicLong rejectedBytes = new AtomicLong();
+    private final AtomicLong refundedBytes = new AtomicLong();
+
+    @Autowired
+    public UploadAdmissionService(@Value("${upload.admission.max-in-flight-bytes:67108864}") long maxInFlightBytes,
+                                  @Value("${upload.admission.max-concurrent-per-user:2}") int maxConcurrentPerUser,
+                                  @Value("${upload.admission.daily-bytes-per-user:209715200}") long dailyBytesPerUser,
+                                  @Value("${upload.admission.max-upload-bytes:10485760}") long maxUploadBytes,
+                                  @Value("${upload.admission.retry-after-seconds:5}") long retryAfterSeconds) {
+        this(maxInFlightBytes, maxConcurrentPerUser, dailyBytesPerUser, maxUploadBytes, retryAfterSeconds,
+                Clock.systemDefaultZone());
+    }
+
+    UploadAdmissionService(long maxInFlightBytes, int maxConcurrentPerUser, long dailyBytesPerUser,
+                           long maxUploadBytes, long retryAfterSeconds, Clock clock) {
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.maxConcurrentPerUser = Math.max(1, maxConcurrentPerUser);
+        this.dailyBytesPerUser = dailyBytesPerUser;
+        this.maxUploadBytes = maxUploadBytes;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+    }
+
+    /**
+     * Reserve room for an upload of declaredBytes (negative if unknown) by user, or throw
+     * UploadRejectedException. The permit must be released when the upload ends.
+     */
+    public Permit admit(String user, long declaredBytes) {
+        long bytes = declaredBytes > 0 ? Math.min(declaredBytes, maxUploadBytes) : maxUploadBytes;
+        rollOverIfNewDay();
+
+        if (!reserveInFlight(bytes)) {
+            reject(rejectedBusy, bytes);
+            throw new UploadRejectedException("Too many uploads in progress, please try again shortly", retryAfterSeconds);
+        }
+
+        String rejection = null;
+        Usage usage;
+        while (true) {
+            usage = usageByUser.computeIfAbsent(user, key -> new Usage());
+            synchronized (usage) {
+                if (usage.retired) {
+                    // Dropped at midnight between our lookup and lock; take the fresh entry
+                    continue;
+                }
+                if (usage.active >= maxConcurrentPerUser) {
+                    rejection = "concurrent";
+                } else if (usage.dayBytes + bytes > dailyBytesPerUser) {
+                    rejection = "daily";
+                } else {
+                    usage.active++;
+                    usage.dayBytes += bytes;
+                }
+                break;
+            }
+        }
+        if (rejection != null) {
+            inFlightBytes.addAndGet(-bytes);
+            if (rejection.equals("concurrent")) {
+                reject(rejectedConcurrent, bytes);
+                throw new UploadRejectedException("You already have " + maxConcurrentPerUser
+                        + " uploads in progress; wait for one to finish", retryAfterSeconds);
+            }
+            reject(rejectedDaily, bytes);
+            throw new UploadRejectedException("Daily upload limit of " + (dailyBytesPerUser / (1024 * 1024))
+                    + "MB reached", secondsUntilTomorrow());
+        }
+
+        admitted.incrementAndGet();
+        admittedBytes.addAndGet(bytes);
+        return new Permit(usage, bytes);
+    }
+
+    // A single upload larger than the whole budget is still let through when nothing else is running
+    private boolean reserveInFlight(long bytes) {
+        while (true) {
+            long current = inFlightBytes.get();
+            if (current > 0 && current + bytes > maxInFlightBytes) {
+                return false;
+            }
+            if (inFlightBytes.compareAndSet(current, current + bytes)) {
+                peakInFlightBytes.accumulateAndGet(current + bytes, Math::max);
+                return true;
+            }
+        }
+    }
+
+    private void reject(AtomicLong reason, long bytes) {
+        reason.incrementAndGet();
+        rejectedBytes.addAndGet(bytes);
+    }
+
+    // Daily totals restart at midnight; users with nothing in progress are forgotten then
+    private void rollOverIfNewDay() {
+        LocalDate now = LocalDate.now(clock);
+        if (now.equals(today)) {
+            return;
+        }
+        synchronized (usageByUser) {
+            if (now.equals(today)) {
+                return;
+            }
+            usageByUser.forEach((user, usage) -> {
+                synchronized (usage) {
+                    usage.dayBytes = 0;
+                }
+            });
+            usageByUser.entrySet().removeIf(entry -> entry.getValue().retireIfIdle());
+            today = now;
+        }
+    }
+
+    private long secondsUntilTomorrow() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return Math.max(1, Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).getSeconds());
+    }
+
+    @Override
+    public String getStatsName() {
+        return "uploadAdmission";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("inFlightBytes", inFlightBytes.get());
+        stats.put("peakInFlightBytes", peakInFlightBytes.get());
+        stats.put("maxInFlightBytes", maxInFlightBytes);
+        stats.put("admitted", admitted.get());
+        stats.put("admittedBytes", admittedBytes.get());
+        stats.put("rejectedBusy", rejectedBusy.get());
+        stats.put("rejectedConcurrent", rejectedConcurrent.get());
+        stats.put("rejectedDaily", rejectedDaily.get());
+        stats.put("rejectedBytes", rejectedBytes.get());
+        stats.put("refundedBytes", refundedBytes.get());
+        stats.put("trackedUsers", usageByUser.size());
+        return stats;
+    }
+
+    private static final class Usage {
+        int active;
+        long dayBytes;
+        boolean retired;
+
+        synchronized boolean retireIfIdle() {
+            retired = active == 0;
+            return retired;
+        }
+    }
+
+    /**
+     * Room held by one admitted upload. Releasing it more than once has no further effect.
+     */
+    public final class Permit {
+
+        private final Usage usage;
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Usage usage, long bytes) {
+            this.usage = usage;
+            this.bytes = bytes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * End the upload; one that failed doesn't count toward the user's daily bytes.
+         */
+        public void release(boolean stored) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlightBytes.addAndGet(-bytes);
+            synchronized (usage) {
+                usage.active--;
+                if (!stored) {
+                    usage.dayBytes = Math.max(0, usage.dayBytes - bytes);
+                }
+            }
+            if (!stored) {
+                refundedBytes.addAndGet(bytes);
+            }
+        }
+    }
+}
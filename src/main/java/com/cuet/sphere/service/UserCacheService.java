@@ -0,0 +1,103 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.event.UserChangedEvent;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.util.TtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process near-cache for User entities, keyed by email and by id.
+ * Cached users are shared between threads: treat them as read-only and load a fresh
+ * entity from UserRepository before modifying and saving a user. Every mutation must
+ * publish a UserChangedEvent so the stale copy is evicted immediately.
+ */
+@Service
+public class UserCacheService implements StatsProvider {
+
+    private final UserRepository userRepository;
+    private final TtlCache<String, User> byEmail;
+    private final TtlCache<Long, User> byId;
+
+    @Autowired
+    public UserCacheService(UserRepository userRepository,
+                            @Value("${user.cache.max-size:5000}") int maxSize,
+                            @Value("${user.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.byEmail = new TtlCache<>(maxSize, ttlSeconds * 1000);
+        this.byId = new TtlCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    public User findUserByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        User user = byEmail.get(email);
+        if (user == null) {
+            user = userRepository.findUserByEmail(email);
+            cache(user);
+        }
+        return user;
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User user = byId.get(id);
+        if (user == null) {
+            user = userRepository.findById(id).orElse(null);
+            cache(user);
+        }
+        return Optional.ofNullable(user);
+    }
+
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        if (user.getEmail() != null) {
+            byEmail.invalidate(user.getEmail());
+        }
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUser());
+    }
+
+    @Override
+    public String getStatsName() {
+        return "users";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("byEmail", byEmail.stats());
+        stats.put("byId", byId.stats());
+        return stats;
+    }
+
+    private void cache(User user) {
+        if (user == null) {
+            return;
+        }
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail(), user);
+        }
+        if (user.getId() != null) {
+            byId.put(user.getId(), user);
+        }
+    }
+}
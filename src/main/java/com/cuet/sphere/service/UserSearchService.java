@@ -0,0 +1,110 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.event.UserChangedEvent;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.model.User.Role;
+import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.response.UserSearchResponse;
+import com.cuet.sphere.response.UserSearchResult;
+import com.cuet.sphere.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead and paged user search over name, full student id and email.
+ * Built from the users table at startup and updated from UserChangedEvent, so results
+ * are served from memory without touching the database.
+ * Students and CRs only see their own batch and department; system admins see everyone.
+ */
+@Service
+public class UserSearchService implements StatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchService.class);
+    
+    private static final int MAX_TYPEAHEAD_LIMIT = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private final TrigramIndex<UserSearchResult> index = new TrigramIndex<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        for (User user : userRepository.findAll()) {
+            index(user);
+        }
+        logger.info("User search index built: {} users, {} trigrams in {}ms",
+            index.size(), index.gramCount(), System.currentTimeMillis() - start);
+    }
+    
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUser().getId() != null) {
+            index(event.getUser());
+        }
+    }
+    
+    public List<UserSearchResult> typeahead(User searcher, String query, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_TYPEAHEAD_LIMIT));
+        List<UserSearchResult> matches = index.search(query, scopeFor(searcher));
+        return new ArrayList<>(matches.subList(0, Math.min(max, matches.size())));
+    }
+    
+    public UserSearchResponse search(User searcher, String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        List<UserSearchResult> matches = index.search(query, scopeFor(searcher));
+        int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        return new UserSearchResponse(new ArrayList<>(matches.subList(from, to)), pageNumber, pageSize,
+            matches.size(), to < matches.size());
+    }
+    
+    @Override
+    public String getStatsName() {
+        return "userSearch";
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("users", index.size());
+        stats.put("trigrams", index.gramCount());
+        return stats;
+    }
+    
+    private void index(User user) {
+        UserSearchResult result = new UserSearchResult(
+            user.getId(),
+            user.getFullName(),
+            user.getEmail(),
+            user.getFullStudentId(),
+            user.getBatch(),
+            user.getDepartment(),
+            user.getRole(),
+            user.getProfilePicture()
+        );
+        index.put(user.getId(), scope(user.getBatch(), user.getDepartment()), result,
+            user.getFullName(), user.getFullStudentId(), user.getEmail());
+    }
+    
+    private String scopeFor(User searcher) {
+        return Role.SYSTEM_ADMIN.equals(searcher.getRole()) ? null : scope(searcher.getBatch(), searcher.getDepartment());
+    }
+    
+    private String scope(String batch, String department) {
+        return batch + ":" + department;
+    }
+}
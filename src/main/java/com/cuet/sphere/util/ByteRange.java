@@ -0,0 +1,71 @@
+package com.cuet.sphere.util;
+
+/**
+ * A single HTTP byte range (RFC 9110 section 14), inclusive at both ends. Only one range per request
+ * is honoured; a header asking for several, or one that can't be parsed, is ignored and the whole
+ * file is sent, which the RFC allows.
+ */
+public class ByteRange {
+
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final long start;
+    private final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * The range a Range header asks for in a file of the given size; null to send the whole file,
+     * UNSATISFIABLE when it asks only for bytes past the end.
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            String lastPart = spec.substring(dash + 1);
+            long last = lastPart.isEmpty() ? Long.MAX_VALUE : Long.parseLong(lastPart);
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(first, Math.min(last, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
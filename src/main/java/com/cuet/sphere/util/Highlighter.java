@@ -0,0 +1,133 @@
+package com.cuet.sphere.util;
+
+import java.util.Collection;
+
+/**
+ * Marks query terms in text for display, using the same term rules as TextAnalyzer
+ * and InvertedIndex: a word matches a query term it equals, or one of two or more
+ * characters it starts with. Output is HTML-escaped with matches wrapped in &lt;mark&gt;.
+ */
+public final class Highlighter {
+
+    private static final String OPEN = "<mark>";
+    private static final String CLOSE = "</mark>";
+    private static final String ELLIPSIS = "…";
+
+    private Highlighter() {
+    }
+
+    public static String highlight(String text, Collection<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        return highlight(text, 0, text.length(), terms);
+    }
+
+    /**
+     * A window of at most maxChars around the first match (or the start of the text if
+     * nothing matches), cut at word boundaries and highlighted.
+     */
+    public static String snippet(String text, Collection<String> terms, int maxChars) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() <= maxChars) {
+            return highlight(text, terms);
+        }
+
+        int firstMatch = firstMatch(text, terms);
+        int start = firstMatch < 0 ? 0 : Math.max(0, firstMatch - maxChars / 3);
+        int end = Math.min(text.length(), start + maxChars);
+        if (end == text.length()) {
+            start = Math.max(0, end - maxChars);
+        }
+        // Don't cut words in half
+        while (start > 0 && start < firstMatch && !Character.isWhitespace(text.charAt(start - 1))) {
+            start++;
+        }
+        while (end < text.length() && end > start && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+        if (end <= start) {
+            end = Math.min(text.length(), start + maxChars);
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        snippet.append(highlight(text, start, end, terms).trim());
+        if (end < text.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    private static String highlight(String text, int from, int to, Collection<String> terms) {
+        StringBuilder out = new StringBuilder(to - from + 16);
+        int i = from;
+        while (i < to) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                escape(text.charAt(i), out);
+                i++;
+                continue;
+            }
+            int wordEnd = i;
+            while (wordEnd < to && Character.isLetterOrDigit(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            String word = text.substring(i, wordEnd);
+            boolean matched = matches(word.toLowerCase(), terms);
+            if (matched) {
+                out.append(OPEN);
+            }
+            for (int j = 0; j < word.length(); j++) {
+                escape(word.charAt(j), out);
+            }
+            if (matched) {
+                out.append(CLOSE);
+            }
+            i = wordEnd;
+        }
+        return out.toString();
+    }
+
+    private static int firstMatch(String text, Collection<String> terms) {
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int wordEnd = i;
+            while (wordEnd < text.length() && Character.isLetterOrDigit(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            if (matches(text.substring(i, wordEnd).toLowerCase(), terms)) {
+                return i;
+            }
+            i = wordEnd;
+        }
+        return -1;
+    }
+
+    private static boolean matches(String word, Collection<String> terms) {
+        for (String term : terms) {
+            if (word.equals(term) || (term.length() >= 2 && word.startsWith(term))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void escape(char c, StringBuilder out) {
+        switch (c) {
+            case '<': out.append("&lt;"); break;
+            case '>': out.append("&gt;"); break;
+            case '&': out.append("&amp;"); break;
+            case '"': out.append("&quot;"); break;
+            case '\'': out.append("&#39;"); break;
+            default: out.append(c);
+        }
+    }
+}
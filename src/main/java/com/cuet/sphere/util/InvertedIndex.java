@@ -0,0 +1,314 @@
+package com.cuet.sphere.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Small in-memory inverted index over documents identified by a long id.
+ * Each document carries weighted terms, a scope key used to restrict searches
+ * (e.g. "batch:dept") and a recency value used to break ties between equal scores.
+ *
+ * Queries match every query term (AND). A term matches documents containing it exactly,
+ * or, for terms of two characters or more, containing a longer term that starts with it
+ * at a reduced score, so partially typed words still find results.
+ * Scores are BM25-style: rare terms count for more, and repeated terms saturate.
+ *
+ * Postings are also kept per scope, so a scoped search only walks terms that occur in its
+ * scope: prefix expansion and its cap are not diluted by the rest of the catalogue.
+ *
+ * Reads share a lock and writes are exclusive, so the index can be updated from request
+ * threads while searches run.
+ */
+public class InvertedIndex {
+
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Bounds the work a one- or two-letter prefix can cause on a large dictionary
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float SATURATION = 1.2f;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingDouble((Hit hit) -> hit.score).reversed()
+            .thenComparing(Comparator.comparingLong((Hit hit) -> hit.recency).reversed())
+            .thenComparing(Comparator.comparingLong((Hit hit) -> hit.id).reversed());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, TreeMap<String, Map<Long, Float>>> scopedPostings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Add a document, replacing any previous version with the same id.
+     */
+    public void put(long id, String scope, long recency, Terms terms) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            String[] termArray = terms.weights.keySet().toArray(new String[0]);
+            documents.put(id, new Document(scope, recency, termArray));
+            TreeMap<String, Map<Long, Float>> inScope = scopedPostings.computeIfAbsent(scope, key -> new TreeMap<>());
+            for (Map.Entry<String, Float> entry : terms.weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+                inScope.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            scopedPostings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * All documents matching the query, best first.
+     * A null scope searches every document; otherwise only documents with exactly that scope.
+     */
+    public List<Hit> search(String query, String scope) {
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            for (Map.Entry<Long, Float> entry : score(query, scope).entrySet()) {
+                hits.add(new Hit(entry.getKey(), entry.getValue(), documents.get(entry.getKey()).recency));
+            }
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit hits ranked strictly after the given hit, for keyset paging through results.
+     * Pass null to start from the best hit. If the index changed since the cursor hit was
+     * taken, the page simply continues below it, so results can shift slightly between pages.
+     * Only the requested hits are ordered, not every match.
+     */
+    public List<Hit> search(String query, String scope, Hit after, int limit) {
+        lock.readLock().lock();
+        try {
+            int wanted = Math.max(0, limit);
+            // Worst of the best hits so far at the head
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.max(1, wanted), RANKING.reversed());
+            if (wanted > 0) {
+                for (Map.Entry<Long, Float> entry : score(query, scope).entrySet()) {
+                    Hit hit = new Hit(entry.getKey(), entry.getValue(), documents.get(entry.getKey()).recency);
+                    if (after != null && RANKING.compare(hit, after) <= 0) {
+                        continue;
+                    }
+                    if (best.size() < wanted) {
+                        best.add(hit);
+                    } else if (RANKING.compare(hit, best.peek()) < 0) {
+                        best.poll();
+                        best.add(hit);
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private Map<Long, Float> score(String query, String scope) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextAnalyzer.tokenize(query));
+        Map<Long, Float> scores = new HashMap<>();
+        boolean first = true;
+        for (String queryTerm : queryTerms) {
+            Map<Long, Float> termScores = scoreTerm(queryTerm, scope);
+            if (first) {
+                scores = termScores;
+                first = false;
+            } else {
+                // Keep only documents that matched every term so far
+                Iterator<Map.Entry<Long, Float>> it = scores.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, Float> entry = it.next();
+                    Float termScore = termScores.get(entry.getKey());
+                    if (termScore == null) {
+                        it.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + termScore);
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Float> scoreTerm(String queryTerm, String scope) {
+        Map<Long, Float> termScores = new HashMap<>();
+        // Only terms that occur in the scope are looked at, so documents need no scope check
+        TreeMap<String, Map<Long, Float>> dictionary = scope == null ? postings : scopedPostings.get(scope);
+        if (dictionary == null) {
+            return termScores;
+        }
+        Map<Long, Float> exact = dictionary.get(queryTerm);
+        if (exact != null) {
+            accumulate(queryTerm, exact, 1.0f, termScores);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            NavigableMap<String, Map<Long, Float>> longer =
+                    dictionary.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false);
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Float>> entry : longer.entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                accumulate(entry.getKey(), entry.getValue(), PREFIX_MATCH_FACTOR, termScores);
+            }
+        }
+        return termScores;
+    }
+
+    private void accumulate(String term, Map<Long, Float> posting, float factor, Map<Long, Float> termScores) {
+        // Rarity is judged across the whole index, so a term scores the same in every scope
+        float idf = idf(postings.get(term).size());
+        for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+            float weight = entry.getValue();
+            float score = factor * idf * (weight * (SATURATION + 1)) / (weight + SATURATION);
+            // A document matching several expansions of a prefix counts its best one
+            termScores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    private float idf(int documentFrequency) {
+        int n = documents.size();
+        return (float) Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void removeInternal(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        TreeMap<String, Map<Long, Float>> inScope = scopedPostings.get(previous.scope);
+        for (String term : previous.terms) {
+            removePosting(postings, term, id);
+            if (inScope != null) {
+                removePosting(inScope, term, id);
+            }
+        }
+        if (inScope != null && inScope.isEmpty()) {
+            scopedPostings.remove(previous.scope);
+        }
+    }
+
+    private static void removePosting(Map<String, Map<Long, Float>> dictionary, String term, long id) {
+        Map<Long, Float> posting = dictionary.get(term);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Weighted terms of a document, built field by field.
+     * A term that appears several times, or in several fields, adds up its weights.
+     */
+    public static class Terms {
+        private final Map<String, Float> weights = new HashMap<>();
+
+        public Terms add(String text, float weight) {
+            for (String token : TextAnalyzer.tokenize(text)) {
+                weights.merge(token, weight, Float::sum);
+            }
+            return this;
+        }
+
+        public Terms addTerm(String term, float weight) {
+            if (term != null && !term.isEmpty()) {
+                weights.merge(term, weight, Float::sum);
+            }
+            return this;
+        }
+    }
+
+    public static class Hit {
+        private final long id;
+        private final float score;
+        private final long recency;
+
+        public Hit(long id, float score, long recency) {
+            this.id = id;
+            this.score = score;
+            this.recency = recency;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public long getRecency() {
+            return recency;
+        }
+    }
+
+    private static class Document {
+        private final String scope;
+        private final long recency;
+        private final String[] terms;
+
+        Document(String scope, long recency, String[] terms) {
+            this.scope = scope;
+            this.recency = recency;
+            this.terms = terms;
+        }
+    }
+}
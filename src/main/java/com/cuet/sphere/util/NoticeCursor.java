@@ -0,0 +1,56 @@
+package com.cuet.sphere.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, noticeId) for the notice feed.
+ * Clients get it back as nextCursor and pass it unchanged to fetch the next page.
+ */
+public class NoticeCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long noticeId;
+
+    public NoticeCursor(LocalDateTime createdAt, Long noticeId) {
+        this.createdAt = createdAt;
+        this.noticeId = noticeId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getNoticeId() {
+        return noticeId;
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + noticeId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Throws IllegalArgumentException for anything that isn't a cursor produced by {@link #encode()}.
+     */
+    public static NoticeCursor decode(String cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separator));
+            Long noticeId = Long.parseLong(raw.substring(separator + 1));
+            return new NoticeCursor(createdAt, noticeId);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.cuet.sphere.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over ranked search results: the (score, recency, id) of the last hit
+ * a client saw. The next page starts at the first hit ranked below it. If notices were added
+ * or removed in between, scores may have moved a little, so a later page can shift slightly;
+ * it never fails.
+ */
+public class SearchCursor {
+
+    private final float score;
+    private final long recency;
+    private final long id;
+
+    public SearchCursor(InvertedIndex.Hit hit) {
+        this(hit.getScore(), hit.getRecency(), hit.getId());
+    }
+
+    public SearchCursor(float score, long recency, long id) {
+        this.score = score;
+        this.recency = recency;
+        this.id = id;
+    }
+
+    public InvertedIndex.Hit toHit() {
+        return new InvertedIndex.Hit(id, score, recency);
+    }
+
+    public String encode() {
+        String raw = score + "|" + recency + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            // Cursors issued by earlier versions carry a fourth field, which is ignored
+            if (parts.length != 3 && parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
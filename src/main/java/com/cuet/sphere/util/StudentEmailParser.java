@@ -1,13 +1,41 @@
 package com.cuet.sphere.util;
 
+import com.cuet.sphere.service.DepartmentRegistry;
+
 public class StudentEmailParser {
     
+    /**
+     * Parse a student email and also check that its department code belongs to a known department.
+     */
+    public static StudentInfo parseStudentEmail(String email, DepartmentRegistry departments) {
+        StudentInfo info = parseStudentEmail(email);
+        if (!departments.isKnownCode(info.getDepartment())) {
+            throw new IllegalArgumentException("Unknown department code: " + info.getDepartment());
+        }
+        return info;
+    }
+    
+    public static final int INVALID = -1;
+    
+    private static final String DOMAIN = "@student.cuet.ac.bd";
+    private static final int DIGITS = 7;
+    private static final int DEPARTMENT_SHIFT = 10;
+    private static final int BATCH_SHIFT = 17;
+    private static final int FIELD_MASK = 0x7F;
+    private static final int ROLL_MASK = 0x3FF;
+    
     /**
      * Parse CUET student email to extract batch, department, and student ID
      * Email format: u2204015@student.cuet.ac.bd
      * Where: 22 = batch, 04 = department, 015 = student ID
      */
     public static StudentInfo parseStudentEmail(String email) {
+        int packed = parsePacked(email);
+        if (packed != INVALID) {
+            return StudentInfo.fromPacked(packed);
+        }
+        
+        // Not the usual seven digit form: accept longer ids and report what is wrong
         if (email == null || !email.contains("@student.cuet.ac.bd")) {
             throw new IllegalArgumentException("Invalid CUET student email format");
         }
@@ -30,6 +58,100 @@ public class StudentEmailParser {
         return new StudentInfo(batch, department, studentId);
     }
     
+    /**
+     * Validate and decode u2204015@student.cuet.ac.bd in one pass without allocating.
+     * Returns batch, department and roll packed into a non-negative int (see pack), or INVALID.
+     * Only the seven digit form is accepted here; parseStudentEmail also handles longer ids.
+     */
+    public static int parsePacked(String email) {
+        if (email == null || email.length() != 1 + DIGITS + DOMAIN.length() || email.charAt(0) != 'u') {
+            return INVALID;
+        }
+        int batch = 0;
+        int department = 0;
+        int roll = 0;
+        for (int i = 1; i <= DIGITS; i++) {
+            int digit = email.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            if (i <= 2) {
+                batch = batch * 10 + digit;
+            } else if (i <= 4) {
+                department = department * 10 + digit;
+            } else {
+                roll = roll * 10 + digit;
+            }
+        }
+        if (!email.regionMatches(1 + DIGITS, DOMAIN, 0, DOMAIN.length())) {
+            return INVALID;
+        }
+        return pack(batch, department, roll);
+    }
+    
+    /**
+     * Batch (0-99) in bits 17-23, department (0-99) in bits 10-16 and roll (0-999) in bits 0-9.
+     * Packed ids sort the same way as the seven digit student ids they stand for.
+     */
+    public static int pack(int batch, int department, int roll) {
+        return (batch << BATCH_SHIFT) | (department << DEPARTMENT_SHIFT) | roll;
+    }
+    
+    /**
+     * Pack the string parts stored on a user, or INVALID unless they are 2, 2 and 3 digits.
+     */
+    public static int pack(String batch, String department, String studentId) {
+        int b = digits(batch, 2);
+        int d = digits(department, 2);
+        int r = digits(studentId, 3);
+        return b < 0 || d < 0 || r < 0 ? INVALID : pack(b, d, r);
+    }
+    
+    public static int batchOf(int packed) {
+        return (packed >>> BATCH_SHIFT) & FIELD_MASK;
+    }
+    
+    public static int departmentOf(int packed) {
+        return (packed >>> DEPARTMENT_SHIFT) & FIELD_MASK;
+    }
+    
+    public static int rollOf(int packed) {
+        return packed & ROLL_MASK;
+    }
+    
+    /**
+     * The seven digit student id ("2204015") a packed value stands for.
+     */
+    public static String formatStudentId(int packed) {
+        char[] id = new char[DIGITS];
+        writeDigits(id, 0, batchOf(packed), 2);
+        writeDigits(id, 2, departmentOf(packed), 2);
+        writeDigits(id, 4, rollOf(packed), 3);
+        return new String(id);
+    }
+    
+    private static int digits(String text, int length) {
+        if (text == null || text.length() != length) {
+            return INVALID;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private static void writeDigits(char[] target, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+    
     public static class StudentInfo {
         private final String batch;
         private final String department;
@@ -41,6 +163,11 @@ public class StudentEmailParser {
             this.studentId = studentId;
         }
         
+        public static StudentInfo fromPacked(int packed) {
+            String fullId = formatStudentId(packed);
+            return new StudentInfo(fullId.substring(0, 2), fullId.substring(2, 4), fullId.substring(4));
+        }
+        
         public String getBatch() {
             return batch;
         }
@@ -0,0 +1,66 @@
+package com.cuet.sphere.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lower-cased runs of letters and digits,
+ * with a handful of English stop words dropped. Used for both documents and queries
+ * so the two always agree on what a term is.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from",
+            "in", "is", "it", "of", "on", "or", "the", "to", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else {
+                flush(current, tokens);
+            }
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    /**
+     * Letters and digits only, lower-cased, as a single term: "CSE-201" becomes "cse201".
+     */
+    public static String compact(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder compact = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                compact.append(Character.toLowerCase(c));
+            }
+        }
+        return compact.toString();
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.length() == 0) {
+            return;
+        }
+        String token = current.toString();
+        if (!STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+        current.setLength(0);
+    }
+}
@@ -0,0 +1,260 @@
+package com.cuet.sphere.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory substring search over a few short text fields per entry, for typeahead.
+ * Every field is broken into three-character grams; a query's grams narrow the candidates
+ * down before the fields themselves are checked, so "%query%" style matching never scans
+ * everything. Queries shorter than three characters fall back to scanning the requested scope.
+ *
+ * Ranking, best first: a field equal to the query, a field starting with it, a word in a
+ * field starting with it, then a field containing it. Only when nothing contains the query are
+ * near misses returned: entries sharing most of the query's grams, which catches typos.
+ * Earlier fields count for more than later ones.
+ *
+ * Each entry carries a payload returned from searches and an optional scope key;
+ * a search with a scope only sees entries with that exact scope.
+ */
+public class TrigramIndex<T> {
+
+    private static final float EXACT_SCORE = 100f;
+    private static final float PREFIX_SCORE = 80f;
+    private static final float WORD_PREFIX_SCORE = 60f;
+    private static final float CONTAINS_SCORE = 40f;
+    private static final float FUZZY_SCORE = 30f;
+    // Share of the query's grams an entry needs to count as a near miss
+    private static final float FUZZY_THRESHOLD = 0.6f;
+    private static final float FIELD_PENALTY = 0.1f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final Map<String, Set<Long>> scopes = new HashMap<>();
+
+    /**
+     * Add an entry, replacing any previous version with the same id.
+     * Fields are listed most important first.
+     */
+    public void put(long id, String scope, T payload, String... fields) {
+        String[] normalized = new String[fields.length];
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+            grams.addAll(trigrams(normalized[i]));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            entries.put(id, new Entry<>(scope, payload, normalized, grams));
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+            scopes.computeIfAbsent(scope, s -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            scopes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Payloads of all matching entries, best first.
+     * A null scope searches every entry.
+     */
+    public List<T> search(String query, String scope) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Scored<T>> matches = new ArrayList<>();
+            if (normalizedQuery.length() < 3) {
+                Collection<Long> candidates = scope == null ? entries.keySet() : scopes.getOrDefault(scope, Set.of());
+                for (Long id : candidates) {
+                    Entry<T> entry = entries.get(id);
+                    float score = substringScore(entry, normalizedQuery);
+                    if (score > 0) {
+                        matches.add(new Scored<>(id, score, entry));
+                    }
+                }
+            } else {
+                Set<String> queryGrams = new LinkedHashSet<>(trigrams(normalizedQuery));
+                Map<Long, Integer> sharedGrams = new HashMap<>();
+                for (String gram : queryGrams) {
+                    Set<Long> posting = postings.get(gram);
+                    if (posting == null) {
+                        continue;
+                    }
+                    for (Long id : posting) {
+                        if (scope == null || scope.equals(entries.get(id).scope)) {
+                            sharedGrams.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+                List<Scored<T>> nearMisses = new ArrayList<>();
+                for (Map.Entry<Long, Integer> candidate : sharedGrams.entrySet()) {
+                    Entry<T> entry = entries.get(candidate.getKey());
+                    // Only entries holding every gram can contain the query as a substring
+                    float score = candidate.getValue() == queryGrams.size() ? substringScore(entry, normalizedQuery) : 0;
+                    if (score > 0) {
+                        matches.add(new Scored<>(candidate.getKey(), score, entry));
+                        continue;
+                    }
+                    float shared = (float) candidate.getValue() / queryGrams.size();
+                    if (shared >= FUZZY_THRESHOLD) {
+                        nearMisses.add(new Scored<>(candidate.getKey(), FUZZY_SCORE * shared, entry));
+                    }
+                }
+                // Near misses are only a fallback; next to real matches they are noise (e.g. neighbouring ids)
+                if (matches.isEmpty()) {
+                    matches = nearMisses;
+                }
+            }
+
+            matches.sort(Comparator.comparingDouble((Scored<T> match) -> match.score).reversed()
+                    .thenComparing(match -> match.entry.fields.length > 0 ? match.entry.fields[0] : "")
+                    .thenComparingLong(match -> match.id));
+            List<T> payloads = new ArrayList<>(matches.size());
+            for (Scored<T> match : matches) {
+                payloads.add(match.entry.payload);
+            }
+            return payloads;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private float substringScore(Entry<T> entry, String query) {
+        float best = 0;
+        for (int i = 0; i < entry.fields.length; i++) {
+            String field = entry.fields[i];
+            float score;
+            if (field.equals(query)) {
+                score = EXACT_SCORE;
+            } else if (field.startsWith(query)) {
+                score = PREFIX_SCORE;
+            } else if (field.contains(" " + query)) {
+                score = WORD_PREFIX_SCORE;
+            } else if (field.contains(query)) {
+                score = CONTAINS_SCORE;
+            } else {
+                continue;
+            }
+            best = Math.max(best, score * (1 - FIELD_PENALTY * i));
+        }
+        return best;
+    }
+
+    private void removeInternal(long id) {
+        Entry<T> previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : previous.grams) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        Set<Long> scoped = scopes.get(previous.scope);
+        if (scoped != null) {
+            scoped.remove(id);
+            if (scoped.isEmpty()) {
+                scopes.remove(previous.scope);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static List<String> trigrams(String text) {
+        List<String> grams = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static class Entry<T> {
+        private final String scope;
+        private final T payload;
+        private final String[] fields;
+        private final Set<String> grams;
+
+        Entry(String scope, T payload, String[] fields, Set<String> grams) {
+            this.scope = scope;
+            this.payload = payload;
+            this.fields = fields;
+            this.grams = grams;
+        }
+    }
+
+    private static class Scored<T> {
+        private final long id;
+        private final float score;
+        private final Entry<T> entry;
+
+        Scored(long id, float score, Entry<T> entry) {
+            this.id = id;
+            this.score = score;
+            this.entry = entry;
+        }
+    }
+}
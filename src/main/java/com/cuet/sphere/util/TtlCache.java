@@ -0,0 +1,219 @@
+package com.cuet.sphere.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small bounded, thread-safe cache with per-entry expiry.
+ * Entries expire after the configured TTL or at an explicit deadline, whichever comes first.
+ * When the cache grows past its maximum size, expired entries are purged first and then
+ * roughly the oldest tenth is dropped. Age is estimated from a sample of the entries, so eviction
+ * is one pass over the map without sorting it, and puts never wait for another thread's eviction.
+ */
+public class TtlCache<K, V> {
+
+    // Entries whose insertion order is read to estimate the age cutoff on eviction
+    private static final int EVICTION_SAMPLE_SIZE = 256;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicLong insertions = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    TtlCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(clock.getAsLong())) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Return the cached value, or compute it with the loader and cache the result.
+     * Null results are not cached.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Cache a value that must not outlive the given deadline (epoch millis),
+     * e.g. the expiry of a token.
+     */
+    public void put(K key, V value, long deadlineMillis) {
+        long now = clock.getAsLong();
+        long expiresAt = Math.min(now + ttlMillis, deadlineMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, insertions.incrementAndGet(), expiresAt));
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("evictions", getEvictions());
+        return stats;
+    }
+
+    private void evict(long now) {
+        // Whoever holds the lock is already making room; other writers carry on
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (entries.size() <= maxSize) {
+                return;
+            }
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+
+            // Still too big: drop the oldest tenth so we don't evict on every put
+            int excess = entries.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            long cutoff = insertionCutoff(Math.max(excess, maxSize / 10));
+            it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().insertion <= cutoff) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+            // The sample can underestimate; make sure the bound holds
+            it = entries.values().iterator();
+            while (entries.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Insertion number at or below which about toRemove entries lie, from an evenly spaced sample
+    private long insertionCutoff(int toRemove) {
+        int size = entries.size();
+        long[] sample = new long[Math.min(size, EVICTION_SAMPLE_SIZE)];
+        int stride = Math.max(1, size / Math.max(1, sample.length));
+        int seen = 0;
+        int taken = 0;
+        for (Entry<V> entry : entries.values()) {
+            if (taken == sample.length) {
+                break;
+            }
+            if (seen++ % stride == 0) {
+                sample[taken++] = entry.insertion;
+            }
+        }
+        if (taken == 0) {
+            return Long.MIN_VALUE;
+        }
+        Arrays.sort(sample, 0, taken);
+        int index = (int) Math.min(taken - 1, (long) toRemove * taken / size);
+        return index == 0 ? sample[0] - 1 : sample[index - 1];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        // Order of insertion, used as the entry's age
+        private final long insertion;
+        private final long expiresAt;
+
+        private Entry(V value, long insertion, long expiresAt) {
+            this.value = value;
+            this.insertion = insertion;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+-- Baseline schema for CUET Sphere.
+-- Existing databases that were created by Hibernate are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this script only runs on an empty schema.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL PRIMARY KEY,
+    u_full_name VARCHAR(255) NOT NULL,
+    u_email VARCHAR(255) NOT NULL,
+    u_password VARCHAR(255) NOT NULL,
+    u_hall VARCHAR(255),
+    u_bio TEXT,
+    u_batch VARCHAR(255) NOT NULL,
+    u_department VARCHAR(255) NOT NULL,
+    u_student_id VARCHAR(255) NOT NULL,
+    u_is_active BIT,
+    u_req_user BIT,
+    u_role ENUM('STUDENT', 'CR', 'SYSTEM_ADMIN'),
+    u_profile_img_url VARCHAR(255),
+    u_profile_picture VARCHAR(255),
+    u_background_image VARCHAR(255),
+    u_created_at DATETIME(6),
+    u_updated_at DATETIME(6),
+    CONSTRAINT uk_users_email UNIQUE (u_email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS departments (
+    dept_id BIGINT NOT NULL PRIMARY KEY,
+    dept_name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_departments_name UNIQUE (dept_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS semesters (
+    semester_id BIGINT NOT NULL PRIMARY KEY,
+    semester_name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_semesters_name UNIQUE (semester_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS courses (
+    course_id BIGINT NOT NULL PRIMARY KEY,
+    course_code VARCHAR(255) NOT NULL,
+    course_name VARCHAR(255) NOT NULL,
+    dept_id BIGINT NOT NULL,
+    CONSTRAINT uk_courses_code UNIQUE (course_code),
+    CONSTRAINT fk_courses_department FOREIGN KEY (dept_id) REFERENCES departments (dept_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS notices (
+    notice_id BIGINT NOT NULL PRIMARY KEY,
+    N_department VARCHAR(255) NOT NULL,
+    N_batch VARCHAR(255) NOT NULL,
+    N_title VARCHAR(255) NOT NULL,
+    N_message TEXT NOT NULL,
+    N_attachment VARCHAR(255),
+    N_notice_type ENUM('GENERAL', 'URGENT', 'ACADEMIC', 'EVENT'),
+    N_created_at DATETIME(6),
+    N_updated_at DATETIME(6),
+    sender_id BIGINT NOT NULL,
+    CONSTRAINT fk_notices_sender FOREIGN KEY (sender_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS resources (
+    resource_id BIGINT NOT NULL PRIMARY KEY,
+    r_batch VARCHAR(255) NOT NULL,
+    r_resource_type ENUM('LECTURE_NOTE', 'ASSIGNMENT', 'LAB_MANUAL', 'BOOK', 'PRESENTATION', 'QUESTION_PAPER', 'SOLUTION', 'OTHER') NOT NULL,
+    r_title VARCHAR(255) NOT NULL,
+    r_file_path VARCHAR(255) NOT NULL,
+    r_description VARCHAR(255),
+    r_created_at DATETIME(6),
+    r_updated_at DATETIME(6),
+    uploader_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    semester_id BIGINT NOT NULL,
+    CONSTRAINT fk_resources_uploader FOREIGN KEY (uploader_id) REFERENCES users (id),
+    CONSTRAINT fk_resources_course FOREIGN KEY (course_id) REFERENCES courses (course_id),
+    CONSTRAINT fk_resources_semester FOREIGN KEY (semester_id) REFERENCES semesters (semester_id)
+) ENGINE = InnoDB;
+
+-- Id generators: the entities use GenerationType.AUTO, which Hibernate maps on MySQL to one
+-- single-row table per entity holding the next id (allocated in blocks of 50).
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO users_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM users_seq);
+
+CREATE TABLE IF NOT EXISTS departments_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO departments_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM departments_seq);
+
+CREATE TABLE IF NOT EXISTS semesters_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO semesters_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM semesters_seq);
+
+CREATE TABLE IF NOT EXISTS courses_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO courses_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM courses_seq);
+
+CREATE TABLE IF NOT EXISTS notices_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO notices_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM notices_seq);
+
+CREATE TABLE IF NOT EXISTS resources_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO resources_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM resources_seq);
@@ -0,0 +1,22 @@
+-- Composite indexes matching the NoticeRepository / ResourceRepository access patterns.
+-- InnoDB appends the primary key to every secondary index, so (…, created_at) also serves
+-- the (created_at, notice_id) keyset ordering of the notice feed.
+
+-- Notice feed, paged and keyset: WHERE batch AND department ORDER BY created_at DESC
+CREATE INDEX idx_notices_batch_dept_created ON notices (N_batch, N_department, N_created_at);
+-- Type-filtered feed: WHERE batch AND department AND notice_type ORDER BY created_at DESC
+CREATE INDEX idx_notices_batch_dept_type_created ON notices (N_batch, N_department, N_notice_type, N_created_at);
+-- "My notices": WHERE sender_id ORDER BY created_at DESC
+CREATE INDEX idx_notices_sender_created ON notices (sender_id, N_created_at);
+-- Global (system admin) feed: ORDER BY created_at DESC
+CREATE INDEX idx_notices_created_at ON notices (N_created_at);
+
+-- Resource lists: WHERE batch AND course (joined to the department) ORDER BY created_at DESC
+CREATE INDEX idx_resources_batch_course_created ON resources (r_batch, course_id, r_created_at);
+-- Type-filtered lists: WHERE batch AND resource_type ORDER BY created_at DESC
+CREATE INDEX idx_resources_batch_type_created ON resources (r_batch, r_resource_type, r_created_at);
+-- "My resources": WHERE uploader_id ORDER BY created_at DESC
+CREATE INDEX idx_resources_uploader_created ON resources (uploader_id, r_created_at);
+-- Per-course and per-semester listings
+CREATE INDEX idx_resources_course_created ON resources (course_id, r_created_at);
+CREATE INDEX idx_resources_semester_created ON resources (semester_id, r_created_at);
@@ -0,0 +1,26 @@
+-- Store each department's two-digit code (as used in student ids) on the department row,
+-- so code <-> name lookups come from the table instead of a hard-coded switch.
+
+ALTER TABLE departments ADD COLUMN dept_code VARCHAR(2) NULL;
+
+UPDATE departments SET dept_code = CASE dept_name
+    WHEN 'Civil Engineering' THEN '01'
+    WHEN 'Mechanical Engineering' THEN '02'
+    WHEN 'Electrical & Electronics Engineering' THEN '03'
+    WHEN 'Computer Science & Engineering' THEN '04'
+    WHEN 'Water Resources Engineering' THEN '05'
+    WHEN 'Petroleum & Mining Engineering' THEN '06'
+    WHEN 'Mechatronics and Industrial Engineering' THEN '07'
+    WHEN 'Electronics & Telecommunication Engineering' THEN '08'
+    WHEN 'Urban & Regional Planning' THEN '09'
+    WHEN 'Architecture' THEN '10'
+    WHEN 'Biomedical Engineering' THEN '11'
+    WHEN 'Nuclear Engineering' THEN '12'
+    WHEN 'Materials Science & Engineering' THEN '13'
+    WHEN 'Physics' THEN '14'
+    WHEN 'Chemistry' THEN '15'
+    WHEN 'Mathematics' THEN '16'
+    WHEN 'Humanities' THEN '17'
+END;
+
+CREATE UNIQUE INDEX uk_departments_code ON departments (dept_code);
@@ -0,0 +1,22 @@
+-- Carry the owning department code on each resource so list and search queries can filter
+-- on (batch, dept_code) directly instead of joining courses -> departments by name.
+
+ALTER TABLE resources ADD COLUMN r_dept_code VARCHAR(2) NULL;
+
+-- Backfill from the course's department code (set by V3)
+UPDATE resources r
+    JOIN courses c ON c.course_id = r.course_id
+    JOIN departments d ON d.dept_id = c.dept_id
+SET r.r_dept_code = d.dept_code;
+
+-- Anything left (departments without a code) falls back to the uploader's code,
+-- which createResource already requires to match the course's department
+UPDATE resources r
+    JOIN users u ON u.id = r.uploader_id
+SET r.r_dept_code = u.u_department
+WHERE r.r_dept_code IS NULL;
+
+ALTER TABLE resources MODIFY r_dept_code VARCHAR(2) NOT NULL;
+
+-- Resource lists and search: WHERE batch AND dept_code ORDER BY created_at DESC
+CREATE INDEX idx_resources_batch_dept_created ON resources (r_batch, r_dept_code, r_created_at);
@@ -0,0 +1,22 @@
+-- Objects uploaded straight to S3 through presigned URLs. A row is PENDING from the moment the
+-- URL is issued and COMPLETE once the client reports the upload and the object has been checked.
+
+CREATE TABLE IF NOT EXISTS stored_files (
+    file_id BIGINT NOT NULL PRIMARY KEY,
+    sf_key VARCHAR(512) NOT NULL,
+    sf_purpose ENUM('ATTACHMENT', 'PROFILE') NOT NULL,
+    sf_content_type VARCHAR(255) NOT NULL,
+    sf_size_bytes BIGINT NOT NULL,
+    sf_status ENUM('PENDING', 'COMPLETE') NOT NULL,
+    sf_etag VARCHAR(255),
+    sf_created_at DATETIME(6),
+    sf_completed_at DATETIME(6),
+    owner_id BIGINT NOT NULL,
+    CONSTRAINT uk_stored_files_key UNIQUE (sf_key),
+    CONSTRAINT fk_stored_files_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_stored_files_owner_created ON stored_files (owner_id, sf_created_at);
+
+CREATE TABLE IF NOT EXISTS stored_files_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO stored_files_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM stored_files_seq);
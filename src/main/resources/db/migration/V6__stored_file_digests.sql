@@ -0,0 +1,7 @@
+-- Content-addressed attachments: one object per SHA-256 digest, shared by every upload of the same
+-- bytes. The reference count says how many uploads point at it; the object is deleted at zero.
+
+ALTER TABLE stored_files ADD COLUMN sf_sha256 VARCHAR(64) NULL;
+ALTER TABLE stored_files ADD COLUMN sf_ref_count INT NOT NULL DEFAULT 0;
+
+CREATE UNIQUE INDEX uk_stored_files_sha256 ON stored_files (sf_sha256);
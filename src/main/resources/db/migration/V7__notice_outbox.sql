@@ -0,0 +1,16 @@
+-- Notices waiting to be pushed over WebSocket. A row is written in the same transaction as its
+-- notice and deleted once the notice has been sent; a failed send is retried at no_next_attempt_at.
+
+CREATE TABLE IF NOT EXISTS notice_outbox (
+    outbox_id BIGINT NOT NULL PRIMARY KEY,
+    notice_id BIGINT NOT NULL,
+    no_attempts INT NOT NULL DEFAULT 0,
+    no_created_at DATETIME(6),
+    no_next_attempt_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_notice_outbox_notice FOREIGN KEY (notice_id) REFERENCES notices (notice_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_notice_outbox_next_attempt ON notice_outbox (no_next_attempt_at, outbox_id);
+
+CREATE TABLE IF NOT EXISTS notice_outbox_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO notice_outbox_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM notice_outbox_seq);
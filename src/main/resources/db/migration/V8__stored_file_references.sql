@@ -0,0 +1,14 @@
+-- The reference count of a content-addressed attachment now counts the notices and resources linking
+-- to it (previously: uploads of its bytes), and each row remembers when it was last handed out or
+-- linked, so neither the release path nor the orphan collector deletes an object that was just reused.
+
+ALTER TABLE stored_files ADD COLUMN sf_last_referenced_at DATETIME(6) NULL;
+
+UPDATE stored_files SET sf_last_referenced_at = COALESCE(sf_completed_at, sf_created_at);
+
+UPDATE stored_files sf SET sf_ref_count =
+    (SELECT COUNT(*) FROM notices n
+      WHERE n.N_attachment LIKE CONCAT('%/', sf.sf_key) OR n.N_attachment LIKE CONCAT('%/', sf.sf_key, '?%'))
+  + (SELECT COUNT(*) FROM resources r
+      WHERE r.r_file_path LIKE CONCAT('%/', sf.sf_key) OR r.r_file_path LIKE CONCAT('%/', sf.sf_key, '?%'))
+WHERE sf.sf_sha256 IS NOT NULL;
@@ -15,13 +15,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Collections;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -48,7 +44,7 @@ class AuthControllerTest {
     private AuthenticationManager authenticationManager;
 
     @Test
-    void testSigninWithValidCredentials() throws UserException {
+    void testSigninWithValidCredentials() throws Exception {
         // Arrange
         SigninRequest signinRequest = new SigninRequest("test@example.com", "password123");
         
@@ -56,19 +52,14 @@ class AuthControllerTest {
         mockUser.setEmail("test@example.com");
         mockUser.setFullName("Test User");
         mockUser.setRole(User.Role.STUDENT);
-        
-        Authentication mockAuth = new UsernamePasswordAuthenticationToken(
-            "test@example.com", 
-            "password123",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT"))
-        );
+        mockUser.setPassword("$2a$10$hashedPassword");
         
         when(userRepository.findUserByEmail("test@example.com")).thenReturn(mockUser);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(mockAuth);
+        when(passwordEncoder.matches("password123", "$2a$10$hashedPassword")).thenReturn(true);
         when(jwtProvider.generateToken(any(Authentication.class))).thenReturn("mock.jwt.token");
         
         // Act
-        ResponseEntity<AuthResponse> response = authController.signinHandler(signinRequest);
+        ResponseEntity<AuthResponse> response = authController.signinHandler(signinRequest).get();
         
         // Assert
         assertNotNull(response);
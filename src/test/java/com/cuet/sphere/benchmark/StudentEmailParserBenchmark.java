@@ -0,0 +1,81 @@
+package com.cuet.sphere.benchmark;
+
+import com.cuet.sphere.util.StudentEmailParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the substring based parser with the single pass packed decoder.
+ * Run with:
+ *   mvn test-compile exec:java -Dexec.mainClass=com.cuet.sphere.benchmark.StudentEmailParserBenchmark -Dexec.classpathScope=test
+ * Add -prof gc through the options below to see allocation per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StudentEmailParserBenchmark {
+
+    private String[] emails;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        emails = new String[256];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = String.format("u%02d%02d%03d@student.cuet.ac.bd", 18 + i % 6, 1 + i % 17, i);
+        }
+    }
+
+    @Benchmark
+    public StudentEmailParser.StudentInfo substringParser() {
+        return substringParse(nextEmail());
+    }
+
+    @Benchmark
+    public int packedParser() {
+        return StudentEmailParser.parsePacked(nextEmail());
+    }
+
+    // The parser as it was before the packed decoder, kept here as the baseline
+    private static StudentEmailParser.StudentInfo substringParse(String email) {
+        if (email == null || !email.contains("@student.cuet.ac.bd")) {
+            throw new IllegalArgumentException("Invalid CUET student email format");
+        }
+        String prefix = email.substring(0, email.indexOf("@"));
+        if (!prefix.startsWith("u")) {
+            throw new IllegalArgumentException("Invalid CUET student email format: must start with 'u'");
+        }
+        String numbers = prefix.substring(1);
+        if (numbers.length() < 7) {
+            throw new IllegalArgumentException("Invalid CUET student email format: insufficient digits");
+        }
+        return new StudentEmailParser.StudentInfo(numbers.substring(0, 2), numbers.substring(2, 4), numbers.substring(4));
+    }
+
+    private String nextEmail() {
+        next = (next + 1) & (emails.length - 1);
+        return emails[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StudentEmailParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cuet.sphere.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void choosesHighestStrengthWithinTarget() {
+        Map<Integer, Long> timings = Map.of(10, 60L, 11, 120L, 12, 240L, 13, 480L, 14, 960L);
+
+        assertEquals(12, AdaptiveBCryptPasswordEncoder.chooseStrength(250, 10, 14, timings::get));
+    }
+
+    @Test
+    void medianIgnoresOneSlowRun() {
+        // Strength 12 has one run inflated by a pause; the other two are well within target
+        AtomicInteger call = new AtomicInteger();
+        List<Integer> measured = new ArrayList<>();
+
+        int chosen = AdaptiveBCryptPasswordEncoder.chooseStrength(250, 11, 13, strength -> {
+            measured.add(strength);
+            if (strength == 12 && call.incrementAndGet() == 1) {
+                return 900;
+            }
+            return strength == 13 ? 480 : 100;
+        });
+
+        assertEquals(12, chosen);
+        assertEquals(List.of(11, 11, 11, 12, 12, 12, 13, 13, 13), measured);
+    }
+
+    @Test
+    void minimumStrengthIsKeptWhenAlreadyOverTarget() {
+        assertEquals(10, AdaptiveBCryptPasswordEncoder.chooseStrength(50, 10, 14, strength -> 100));
+    }
+
+    @Test
+    void calibratedEncoderHashesAtItsStrength() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrate(10_000, 4, 5);
+
+        String hash = encoder.encode("secret");
+        assertEquals(encoder.getStrength(), AdaptiveBCryptPasswordEncoder.strengthOf(hash));
+        assertTrue(encoder.matches("secret", hash));
+    }
+
+    @Test
+    void upgradeEncodingWhenCostDiffers() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertFalse(encoder.upgradeEncoding("plain-text"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void strengthOfReadsCostFromHash() {
+        assertEquals(4, AdaptiveBCryptPasswordEncoder.strengthOf(new BCryptPasswordEncoder(4).encode("secret")));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.strengthOf("$2a$xx$nothash"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.cuet.sphere.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef-test-secret";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, 100, 60_000);
+
+    @Test
+    void validTokenIsVerifiedOnceThenServedFromCache() {
+        String token = token(verifier.getKey(), new Date(System.currentTimeMillis() + 60_000));
+
+        Claims first = verifier.verify(token);
+        Claims second = verifier.verify(token);
+
+        assertEquals("user@student.cuet.ac.bd", first.get("email"));
+        assertSame(first, second);
+        assertEquals(1, verifier.getCacheMisses());
+        assertEquals(1, verifier.getCacheHits());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = token(verifier.getKey(), new Date(System.currentTimeMillis() - 1000));
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+        assertFalse(verifier.isValid(token));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        SecretKey otherKey = Keys.hmacShaKeyFor("another-secret-another-secret-another-secret".getBytes());
+        String token = token(otherKey, new Date(System.currentTimeMillis() + 60_000));
+
+        assertThrows(JwtException.class, () -> verifier.verify(token));
+        assertFalse(verifier.isValid("not.a.token"));
+    }
+
+    private static String token(SecretKey key, Date expiration) {
+        return Jwts.builder()
+                .issuedAt(new Date(expiration.getTime() - 120_000))
+                .expiration(expiration)
+                .claim("email", "user@student.cuet.ac.bd")
+                .signWith(key)
+                .compact();
+    }
+}
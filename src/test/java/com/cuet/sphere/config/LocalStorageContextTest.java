@@ -0,0 +1,60 @@
+package com.cuet.sphere.config;
+
+import com.cuet.sphere.service.LocalStorageBackend;
+import com.cuet.sphere.service.StatsProvider;
+import com.cuet.sphere.service.StorageBackend;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The whole application on the local storage backend, with no AWS settings and an in-memory
+ * database in place of MySQL.
+ */
+@SpringBootTest(properties = {
+        "storage.backend=local",
+        "storage.local.root=${java.io.tmpdir}/cuetsphere-context-test",
+        "spring.datasource.url=jdbc:h2:mem:context;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "storage.gc.enabled=false"
+})
+class LocalStorageContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Test
+    void startsWithoutAnyS3Beans() {
+        assertInstanceOf(LocalStorageBackend.class, storageBackend);
+        assertTrue(context.getBeanNamesForType(S3Client.class).length == 0);
+        assertTrue(context.getBeanNamesForType(S3AsyncClient.class).length == 0);
+        assertTrue(context.getBeanNamesForType(S3Presigner.class).length == 0);
+    }
+
+    @Test
+    void everyStatsProviderHasItsOwnName() {
+        List<String> names = context.getBeansOfType(StatsProvider.class).values().stream()
+                .map(StatsProvider::getStatsName)
+                .toList();
+
+        assertEquals(names.size(), Set.copyOf(names).size());
+        assertTrue(names.containsAll(List.of("jwtVerification", "users", "noticeSearch", "storage", "uploadAdmission")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.cuet.sphere.config;
+
+import com.cuet.sphere.service.UploadAdmissionService;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionFilterTest {
+
+    private final UploadAdmissionService admissionService = new UploadAdmissionService(1000, 2, 10_000, 1000, 5);
+    private final UploadAdmissionFilter filter = new UploadAdmissionFilter(admissionService);
+
+    @BeforeEach
+    void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("cr@student.cuet.ac.bd", null, List.of()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void storedUploadIsChargedToTheDailyQuota() throws Exception {
+        filter.doFilter(upload(), new MockHttpServletResponse(), (request, response) -> { });
+
+        assertEquals(0L, admissionService.getStats().get("inFlightBytes"));
+        assertEquals(0L, admissionService.getStats().get("refundedBytes"));
+    }
+
+    @Test
+    void uploadWhoseHandlerThrowsIsReleasedAsFailed() {
+        assertThrows(ServletException.class, () -> filter.doFilter(upload(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    throw new ServletException("storage unavailable");
+                }));
+
+        assertEquals(0L, admissionService.getStats().get("inFlightBytes"));
+        assertEquals(400L, admissionService.getStats().get("refundedBytes"));
+    }
+
+    private static MockHttpServletRequest upload() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/upload/file");
+        request.setContent(new byte[400]);
+        return request;
+    }
+}
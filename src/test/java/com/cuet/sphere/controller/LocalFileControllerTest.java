@@ -0,0 +1,106 @@
+package com.cuet.sphere.controller;
+
+import com.cuet.sphere.service.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFileControllerTest {
+
+    @TempDir
+    Path root;
+
+    private final LocalFileController controller = new LocalFileController();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root.toString(), "http://localhost/public/files");
+        storage.uploadBytes("notices/a.pdf", "application/pdf", "0123456789".getBytes(StandardCharsets.UTF_8)).get();
+        ReflectionTestUtils.setField(controller, "storage", storage);
+    }
+
+    @Test
+    void servesTheWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = serve(get("/public/files/notices/a.pdf"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void servesASingleRange() throws Exception {
+        MockHttpServletRequest request = get("/public/files/notices/a.pdf");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLengthLong());
+    }
+
+    @Test
+    void rejectsRangesPastTheEnd() throws Exception {
+        MockHttpServletRequest request = get("/public/files/notices/a.pdf");
+        request.addHeader("Range", "bytes=10-");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void answersNotModifiedForAMatchingEtag() throws Exception {
+        String etag = serve(get("/public/files/notices/a.pdf")).getHeader("ETag");
+
+        MockHttpServletRequest request = get("/public/files/notices/a.pdf");
+        request.addHeader("If-None-Match", "W/" + etag);
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void ignoresTheRangeWhenIfRangeIsStale() throws Exception {
+        MockHttpServletRequest request = get("/public/files/notices/a.pdf");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void missingOrEscapingKeysAreNotFound() throws Exception {
+        assertEquals(404, serve(get("/public/files/notices/missing.pdf")).getStatus());
+        assertEquals(404, serve(get("/public/files/notices/%2E%2E/%2E%2E/etc/passwd")).getStatus());
+    }
+
+    @Test
+    void contentAddressedKeysUseTheirDigestAsEtag() {
+        assertEquals("\"abc123\"", LocalFileController.etagFor("notices/sha256/abc123.pdf", 10, 0));
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serveFile(request, response);
+        return response;
+    }
+}
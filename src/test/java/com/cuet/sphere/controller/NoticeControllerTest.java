@@ -0,0 +1,43 @@
+package com.cuet.sphere.controller;
+
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.service.CurrentUserService;
+import com.cuet.sphere.service.NoticeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NoticeControllerTest {
+
+    private final NoticeRepository noticeRepository = mock(NoticeRepository.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final NoticeController controller = new NoticeController();
+
+    NoticeControllerTest() {
+        NoticeService noticeService = new NoticeService();
+        ReflectionTestUtils.setField(noticeService, "noticeRepository", noticeRepository);
+        ReflectionTestUtils.setField(controller, "noticeService", noticeService);
+        ReflectionTestUtils.setField(controller, "currentUserService", currentUserService);
+
+        User student = new User();
+        student.setRole(User.Role.STUDENT);
+        student.setBatch("22");
+        student.setDepartment("04");
+        when(currentUserService.getCurrentUserSnapshot()).thenReturn(student);
+    }
+
+    @Test
+    void malformedFeedCursorIsBadRequest() {
+        ResponseEntity<?> response = controller.getNoticeFeed("bm90LWEtY3Vyc29y", 10);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Invalid cursor"), response.getBody());
+        verifyNoInteractions(noticeRepository);
+    }
+}
@@ -0,0 +1,80 @@
+package com.cuet.sphere.controller;
+
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.repository.CourseRepository;
+import com.cuet.sphere.repository.DepartmentRepository;
+import com.cuet.sphere.repository.SemesterRepository;
+import com.cuet.sphere.service.ReferenceDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataControllerTest {
+
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final List<Department> departments = new ArrayList<>();
+    private final ReferenceDataService service = new ReferenceDataService();
+    private final ReferenceDataController controller = new ReferenceDataController();
+
+    ReferenceDataControllerTest() {
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        SemesterRepository semesterRepository = mock(SemesterRepository.class);
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "semesterRepository", semesterRepository);
+        ReflectionTestUtils.setField(service, "departmentRepository", departmentRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(controller, "referenceDataService", service);
+
+        departments.add(department(4L, "CSE"));
+        when(departmentRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(departments));
+        when(semesterRepository.findAll()).thenReturn(List.of());
+        when(courseRepository.findAllWithDepartment()).thenReturn(List.of());
+    }
+
+    @Test
+    void servesTheCatalogueWithAnEtag() {
+        ResponseEntity<byte[]> response = controller.getCatalogue(null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNotNull(response.getHeaders().getETag());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("\"CSE\""));
+    }
+
+    @Test
+    void matchingEtagIsNotModified() {
+        String etag = controller.getCatalogue(null).getHeaders().getETag();
+
+        assertEquals(304, controller.getCatalogue(etag).getStatusCode().value());
+        assertNull(controller.getCatalogue(etag).getBody());
+        assertEquals(304, controller.getCatalogue("\"other\", W/" + etag).getStatusCode().value());
+        assertEquals(304, controller.getCatalogue("*").getStatusCode().value());
+    }
+
+    @Test
+    void staleEtagGetsTheNewCatalogueAfterRefresh() {
+        String etag = controller.getCatalogue(null).getHeaders().getETag();
+
+        departments.add(department(5L, "EEE"));
+        service.refresh();
+        ResponseEntity<byte[]> response = controller.getCatalogue(etag);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertNotEquals(etag, response.getHeaders().getETag());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("\"EEE\""));
+    }
+
+    private static Department department(Long id, String name) {
+        Department department = new Department();
+        department.setDeptId(id);
+        department.setDeptName(name);
+        return department;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cuet.sphere.repository;
+
+import com.cuet.sphere.model.User;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration for the @DataJpaTest slices in this package, named with @ContextConfiguration.
+ * CuetSphereApplication's explicit @ComponentScan would otherwise pull the whole app
+ * (including DataLoader) into the JPA slice. It is deliberately not a @Configuration:
+ * that same scan would pick it up and register every repository twice in the full context.
+ */
+@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+@EntityScan(basePackageClasses = User.class)
+class JpaSliceConfig {
+}
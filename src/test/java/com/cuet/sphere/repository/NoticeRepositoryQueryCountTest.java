@@ -0,0 +1,145 @@
+package com.cuet.sphere.repository;
+
+import com.cuet.sphere.model.Notice;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.response.NoticeResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ContextConfiguration(classes = JpaSliceConfig.class)
+class NoticeRepositoryQueryCountTest {
+
+    private static final int NOTICE_COUNT = 60;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private NoticeRepository noticeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User firstSender;
+
+    @BeforeEach
+    void setUp() {
+        // Several senders so a lazy sender per row would show up as extra statements
+        User[] senders = new User[5];
+        for (int i = 0; i < senders.length; i++) {
+            User sender = new User();
+            sender.setFullName("Sender " + i);
+            sender.setEmail("u220400" + i + "@student.cuet.ac.bd");
+            sender.setPassword("hash");
+            sender.setBatch("22");
+            sender.setDepartment("04");
+            sender.setStudentId("00" + i);
+            sender.setRole(User.Role.CR);
+            entityManager.persist(sender);
+            senders[i] = sender;
+        }
+        firstSender = senders[0];
+
+        for (int i = 0; i < NOTICE_COUNT; i++) {
+            Notice notice = new Notice();
+            notice.setTitle("Notice " + i);
+            notice.setMessage("Message " + i);
+            notice.setNoticeType(i % 2 == 0 ? Notice.NoticeType.GENERAL : Notice.NoticeType.URGENT);
+            notice.setBatch("22");
+            notice.setDepartment("04");
+            notice.setSender(senders[i % senders.length]);
+            entityManager.persist(notice);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void feedPageUsesSingleStatement() {
+        List<NoticeResponse> page = noticeRepository.findFeedFirstPage("22", "04", PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.size());
+        assertNotNull(page.get(0).getSenderName());
+        assertNotNull(page.get(0).getSenderEmail());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void feedContinuationUsesSingleStatement() {
+        NoticeResponse last = noticeRepository.findFeedFirstPage("22", "04", PageRequest.of(0, PAGE_SIZE)).get(PAGE_SIZE - 1);
+        statistics().clear();
+
+        List<NoticeResponse> page = noticeRepository.findFeedAfter("22", "04",
+                last.getCreatedAt(), last.getNoticeId(), PageRequest.of(0, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.size());
+        assertTrue(page.stream().noneMatch(n -> n.getNoticeId().equals(last.getNoticeId())));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void fullPagedListPageAddsOnlyTheCount() {
+        Page<NoticeResponse> page = noticeRepository.findByBatchAndDepartmentOrderByCreatedAtDesc(
+                "22", "04", PageRequest.of(1, PAGE_SIZE));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertEquals(NOTICE_COUNT, page.getTotalElements());
+        assertNotNull(page.getContent().get(0).getSenderName());
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void shortLastPagedListPageSkipsTheCount() {
+        int size = 25;
+        Page<NoticeResponse> page = noticeRepository.findAllResponses(PageRequest.of(NOTICE_COUNT / size, size));
+
+        assertEquals(NOTICE_COUNT % size, page.getNumberOfElements());
+        assertEquals(NOTICE_COUNT, page.getTotalElements());
+        assertEquals(NOTICE_COUNT / size + 1, page.getTotalPages());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void listByTypeUsesSingleStatement() {
+        List<NoticeResponse> notices = noticeRepository.findByBatchAndDepartmentAndNoticeTypeOrderByCreatedAtDesc(
+                "22", "04", Notice.NoticeType.URGENT);
+
+        assertEquals(NOTICE_COUNT / 2, notices.size());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void listBySenderUsesSingleStatement() {
+        List<NoticeResponse> notices = noticeRepository.findBySenderIdOrderByCreatedAtDesc(firstSender.getId());
+
+        assertEquals(NOTICE_COUNT / 5, notices.size());
+        assertTrue(notices.stream().allMatch(n -> "Sender 0".equals(n.getSenderName())));
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,131 @@
+package com.cuet.sphere.repository;
+
+import com.cuet.sphere.model.Course;
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.model.Resource;
+import com.cuet.sphere.model.Semester;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.response.ResourceResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ContextConfiguration(classes = JpaSliceConfig.class)
+class ResourceRepositoryQueryCountTest {
+
+    private static final int RESOURCE_COUNT = 50;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User uploader;
+
+    @BeforeEach
+    void setUp() {
+        Department cse = new Department();
+        cse.setDeptName("Computer Science & Engineering");
+        entityManager.persist(cse);
+
+        Semester semester = new Semester();
+        semester.setSemesterName("2-1");
+        entityManager.persist(semester);
+
+        uploader = new User();
+        uploader.setFullName("Test CR");
+        uploader.setEmail("u2204001@student.cuet.ac.bd");
+        uploader.setPassword("hash");
+        uploader.setBatch("22");
+        uploader.setDepartment("04");
+        uploader.setStudentId("001");
+        uploader.setRole(User.Role.CR);
+        entityManager.persist(uploader);
+
+        // Spread resources over several courses so lazy loading would hit distinct rows
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            Course course = new Course();
+            course.setCourseCode("CSE-" + (200 + i));
+            course.setCourseName("Course " + i);
+            course.setDepartment(cse);
+            entityManager.persist(course);
+
+            Resource resource = new Resource();
+            resource.setTitle("Lecture " + i);
+            resource.setFilePath("https://drive.example.com/" + i);
+            resource.setDescription("Notes for lecture " + i);
+            resource.setResourceType(Resource.ResourceType.LECTURE_NOTE);
+            resource.setBatch("22");
+            resource.setDeptCode("04");
+            resource.setUploader(uploader);
+            resource.setCourse(course);
+            resource.setSemester(semester);
+            entityManager.persist(resource);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void listByBatchAndDepartmentUsesSingleStatement() {
+        List<ResourceResponse> resources = resourceRepository.findByBatchAndDepartment("22", "04");
+
+        assertEquals(RESOURCE_COUNT, resources.size());
+        ResourceResponse first = resources.get(0);
+        assertEquals("Test CR", first.getUploaderName());
+        assertEquals("Computer Science & Engineering", first.getDepartmentName());
+        assertEquals("2-1", first.getSemesterName());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void listByTypeUsesSingleStatement() {
+        List<ResourceResponse> resources = resourceRepository.findByBatchAndDepartmentAndResourceType(
+                "22", "04", Resource.ResourceType.LECTURE_NOTE);
+
+        assertEquals(RESOURCE_COUNT, resources.size());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void listByUploaderUsesSingleStatement() {
+        List<ResourceResponse> resources = resourceRepository.findByUploaderId(uploader.getId());
+
+        assertEquals(RESOURCE_COUNT, resources.size());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void searchUsesSingleStatement() {
+        List<ResourceResponse> resources = resourceRepository.searchByTitle("22", "04", "lecture 1");
+
+        assertFalse(resources.isEmpty());
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
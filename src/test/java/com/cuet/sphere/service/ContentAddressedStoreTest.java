@@ -0,0 +1,135 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.StoredFile;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.StoredFileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContentAddressedStoreTest {
+
+    private static final String BUCKET_URL = "http://localhost/bucket";
+
+    private final StoredFileRepository repository = mock(StoredFileRepository.class);
+    private final StorageBackend storage = mock(StorageBackend.class);
+    private final ContentAddressedStore store = new ContentAddressedStore();
+
+    ContentAddressedStoreTest() {
+        ReflectionTestUtils.setField(store, "storedFileRepository", repository);
+        ReflectionTestUtils.setField(store, "storageBackend", storage);
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "reuseGraceMinutes", 60L);
+        when(storage.urlFor(anyString())).thenAnswer(invocation -> BUCKET_URL + "/" + invocation.getArgument(0));
+        when(storage.upload(any(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(BUCKET_URL + "/" + invocation.getArgument(1)));
+    }
+
+    @Test
+    void sameContentIsUploadedOnce() throws Exception {
+        String first = store.storeAttachment(file("syllabus.pdf"), user()).get();
+        String second = store.storeAttachment(file("Syllabus (1).PDF"), user()).get();
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith(BUCKET_URL + "/notices/sha256/"));
+        verify(storage, times(1)).upload(any(), anyString());
+        // Uploads only touch the row; notices and resources count as links when they're saved
+        verify(repository).save(argThat(f -> f.getRefCount() == 0 && f.getSha256() != null && f.getLastReferencedAt() != null));
+        verify(repository).touch(anyString(), any());
+        verify(repository, never()).addReference(anyString(), any());
+    }
+
+    @Test
+    void identicalUploadsInFlightShareOneTransfer() throws Exception {
+        CompletableFuture<String> transfer = new CompletableFuture<>();
+        when(storage.upload(any(), anyString())).thenReturn(transfer);
+
+        CompletableFuture<String> first = store.storeAttachment(file("a.pdf"), user());
+        CompletableFuture<String> second = store.storeAttachment(file("b.pdf"), user());
+        assertFalse(second.isDone());
+
+        transfer.complete(BUCKET_URL + "/notices/sha256/x.pdf");
+
+        assertEquals(first.get(), second.get());
+        verify(storage, times(1)).upload(any(), anyString());
+        verify(repository).touch(anyString(), any());
+    }
+
+    @Test
+    void objectIsDeletedOnceTheDatabaseHasNoLinksLeft() {
+        when(repository.deleteUnreferenced(eq("abc"), any())).thenReturn(0, 1);
+        when(storage.delete(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+
+        store.release("notices/sha256/abc.pdf");
+        verify(storage, never()).delete(anyString());
+
+        store.release("notices/sha256/abc.pdf");
+        verify(storage).delete("notices/sha256/abc.pdf");
+        verify(repository, times(2)).releaseReference("abc");
+        assertEquals(1L, store.getStats().get("objectsDeleted"));
+    }
+
+    @Test
+    void recentlyHandedOutObjectIsKeptWhenReleased() throws Exception {
+        String url = store.storeAttachment(file("syllabus.pdf"), user()).get();
+        String key = url.substring(BUCKET_URL.length() + 1);
+
+        store.release(key);
+
+        verify(repository).releaseReference(anyString());
+        verify(repository, never()).deleteUnreferenced(anyString(), any());
+        verify(storage, never()).delete(anyString());
+    }
+
+    @Test
+    void retainFailsOnceTheRowIsGone() {
+        when(repository.addReference(eq("abc"), any())).thenReturn(1, 0);
+
+        assertTrue(store.retain("notices/sha256/abc.pdf"));
+        assertFalse(store.retain("notices/sha256/abc.pdf"));
+    }
+
+    @Test
+    void orphanWithLinksInTheDatabaseIsNotClaimed() {
+        when(repository.deleteUnreferenced(eq("abc"), any())).thenReturn(0);
+        when(repository.findBySha256("abc")).thenReturn(new StoredFile());
+
+        assertFalse(store.claimOrphan("notices/sha256/abc.pdf", Instant.now(), new CompletableFuture<>()));
+    }
+
+    @Test
+    void orphanIsClaimedOnceItsRowIsGone() {
+        when(repository.deleteUnreferenced(eq("abc"), any())).thenReturn(1);
+        when(repository.deleteUnreferenced(eq("def"), any())).thenReturn(0);
+        CompletableFuture<Set<String>> deletion = new CompletableFuture<>();
+
+        assertTrue(store.claimOrphan("notices/sha256/abc.pdf", Instant.now(), deletion));
+        // No row at all, e.g. a release whose storage delete failed
+        assertTrue(store.claimOrphan("notices/sha256/def.pdf", Instant.now(), deletion));
+        assertFalse(store.claimOrphan("notices/sha256/abc.pdf", Instant.now(), new CompletableFuture<>()));
+
+        deletion.complete(Set.of());
+        assertTrue(store.claimOrphan("notices/sha256/abc.pdf", Instant.now(), new CompletableFuture<>()));
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "application/pdf", "same bytes".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        return user;
+    }
+}
@@ -0,0 +1,100 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.repository.DepartmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DepartmentRegistryTest {
+
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final DepartmentRegistry registry = new DepartmentRegistry();
+    private final List<Department> departments = new ArrayList<>();
+
+    DepartmentRegistryTest() {
+        ReflectionTestUtils.setField(registry, "departmentRepository", departmentRepository);
+        when(departmentRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(departments));
+    }
+
+    @Test
+    void looksUpNamesByCode() {
+        departments.add(department(7L, "04", "Computer Science & Engineering"));
+        departments.add(department(3L, "01", "Civil Engineering"));
+        registry.refresh();
+
+        assertEquals("Computer Science & Engineering", registry.nameForCode("04"));
+        assertEquals("Computer Science & Engineering", registry.nameForCode(4));
+        assertEquals(7L, registry.idForCode(4));
+        assertEquals(4, registry.codeForId(7));
+        assertEquals(1, registry.codeForName("Civil Engineering"));
+        assertTrue(registry.isKnownCode("01"));
+        assertTrue(registry.isKnownCode(4));
+    }
+
+    @Test
+    void unknownAndMalformedCodes() {
+        departments.add(department(7L, "04", "Computer Science & Engineering"));
+        registry.refresh();
+
+        assertFalse(registry.isKnownCode("05"));
+        assertNull(registry.nameForCode("05"));
+        assertNull(registry.idForCode(5));
+        for (String code : new String[] {null, "", "4", "004", "a4", "-1"}) {
+            assertFalse(registry.isKnownCode(code), code);
+            assertNull(registry.nameForCode(code), code);
+        }
+        assertFalse(registry.isKnownCode(100));
+        assertNull(registry.nameForCode(-1));
+        assertEquals(DepartmentRegistry.NO_CODE, registry.codeForId(99));
+        assertEquals(DepartmentRegistry.NO_CODE, registry.codeForName(null));
+    }
+
+    @Test
+    void largeIdsAreLookedUpToo() {
+        departments.add(department(1L << 20, "08", "Electronics & Telecommunication Engineering"));
+        registry.refresh();
+
+        assertEquals(8, registry.codeForId(1L << 20));
+        assertEquals(1L << 20, registry.idForCode(8));
+    }
+
+    @Test
+    void departmentsGainCodesOnRefreshAfterTheCodeMigration() {
+        // Rows as they are before V3 fills in dept_code
+        Department cse = department(7L, null, "Computer Science & Engineering");
+        departments.add(cse);
+        registry.refresh();
+        assertFalse(registry.isKnownCode("04"));
+        assertTrue(registry.list().isEmpty());
+
+        cse.setDeptCode("04");
+        registry.refresh();
+
+        assertTrue(registry.isKnownCode("04"));
+        assertEquals(List.of(Map.<String, Object>of("code", "04", "id", 7L, "name", "Computer Science & Engineering")),
+                registry.list());
+    }
+
+    @Test
+    void firstLookupLoadsTheTables() {
+        departments.add(department(7L, "04", "Computer Science & Engineering"));
+
+        assertTrue(registry.isKnownCode("04"));
+        verify(departmentRepository, times(1)).findAll();
+    }
+
+    private static Department department(Long id, String code, String name) {
+        Department department = new Department();
+        department.setDeptId(id);
+        department.setDeptCode(code);
+        department.setDeptName(name);
+        return department;
+    }
+}
@@ -0,0 +1,113 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageVariantServiceTest {
+
+    private final ImageVariantService service = new ImageVariantService(
+            mock(StorageBackend.class), 1, 1, 40_000_000L, 0.85f, 128, 512, 1600);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void rendersEachVariantWithinItsBoundKeepingAspectRatio() throws Exception {
+        List<ImageVariantService.Rendered> rendered = service.render(encode(2000, 1000, BufferedImage.TYPE_INT_RGB, "jpg"));
+
+        assertEquals(3, rendered.size());
+        assertSize(rendered.get(0), ImageVariantService.Variant.THUMB, 128, 64);
+        assertSize(rendered.get(1), ImageVariantService.Variant.MEDIUM, 512, 256);
+        assertSize(rendered.get(2), ImageVariantService.Variant.FULL, 1600, 800);
+        assertEquals("image/jpeg", rendered.get(0).contentType);
+    }
+
+    @Test
+    void neverUpscalesSmallImages() throws Exception {
+        List<ImageVariantService.Rendered> rendered = service.render(encode(300, 200, BufferedImage.TYPE_INT_RGB, "png"));
+
+        assertSize(rendered.get(0), ImageVariantService.Variant.THUMB, 128, 85);
+        assertSize(rendered.get(1), ImageVariantService.Variant.MEDIUM, 300, 200);
+        assertSize(rendered.get(2), ImageVariantService.Variant.FULL, 300, 200);
+    }
+
+    @Test
+    void keepsTransparencyAsPng() throws Exception {
+        List<ImageVariantService.Rendered> rendered = service.render(encode(256, 256, BufferedImage.TYPE_INT_ARGB, "png"));
+
+        assertEquals("image/png", rendered.get(0).contentType);
+        assertEquals(".png", rendered.get(0).extension);
+        assertTrue(ImageIO.read(new ByteArrayInputStream(rendered.get(0).bytes)).getColorModel().hasAlpha());
+    }
+
+    @Test
+    void rejectsBytesThatAreNotAnImage() {
+        assertThrows(UserException.class, () -> service.render("not an image".getBytes()));
+    }
+
+    @Test
+    void rejectsImagesOverThePixelLimitBeforeDecoding() throws Exception {
+        ImageVariantService small = new ImageVariantService(
+                mock(StorageBackend.class), 1, 1, 10_000L, 0.85f, 128, 512, 1600);
+        try {
+            UserException e = assertThrows(UserException.class,
+                    () -> small.render(encode(200, 100, BufferedImage.TYPE_INT_RGB, "png")));
+            assertEquals("Image dimensions are too large", e.getMessage());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void storesOnlyTheReencodedVariants() throws Exception {
+        StorageBackend storage = mock(StorageBackend.class);
+        when(storage.uploadBytes(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("http://localhost/bucket/" + invocation.getArgument(0)));
+        ImageVariantService pipeline = new ImageVariantService(storage, 1, 1, 40_000_000L, 0.85f, 128, 512, 1600);
+        try {
+            MockMultipartFile upload = new MockMultipartFile("file", "me.jpg", "image/jpeg",
+                    encode(300, 200, BufferedImage.TYPE_INT_RGB, "jpg"));
+
+            Map<String, String> urls = pipeline.process(upload, "profile_1").get();
+
+            assertEquals(List.of("thumb", "medium", "full"), List.copyOf(urls.keySet()));
+            assertEquals("http://localhost/bucket/profile/profile_1_full.jpg", urls.get("full"));
+            verify(storage, never()).upload(any(), anyString());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private static void assertSize(ImageVariantService.Rendered rendered, ImageVariantService.Variant variant,
+                                   int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendered.bytes));
+        assertEquals(variant, rendered.variant);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    private static byte[] encode(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageBackendTest {
+
+    private static final String PUBLIC_URL = "http://localhost:8080/public/files";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesUploadsUnderTheirKeyAndMapsUrlsBothWays() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root.toString(), PUBLIC_URL + "/");
+
+        String url = storage.upload(new MockMultipartFile("file", "a.pdf", "application/pdf",
+                "hello".getBytes(StandardCharsets.UTF_8)), "notices/a.pdf").get();
+
+        assertEquals(PUBLIC_URL + "/notices/a.pdf", url);
+        assertEquals("notices/a.pdf", storage.keyOf(url));
+        assertNull(storage.keyOf("https://elsewhere.example/notices/a.pdf"));
+        assertEquals("hello", Files.readString(root.resolve("notices/a.pdf")));
+        assertEquals(5, storage.size("notices/a.pdf"));
+    }
+
+    @Test
+    void streamsOverTheLimitFailWithoutLeavingFilesBehind() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root.toString(), PUBLIC_URL);
+
+        assertThrows(UserException.class, () -> storage.uploadStream(
+                new ByteArrayInputStream(new byte[2 * 1024 * 1024 + 1]), "notices/big.bin", "application/pdf", 2 * 1024 * 1024));
+
+        try (var files = Files.list(root.resolve("notices"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void copiesAndDeletes() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root.toString(), PUBLIC_URL);
+        storage.uploadBytes("notices/staging/x", "image/png", new byte[]{1, 2, 3}).get();
+
+        storage.copy("notices/staging/x", "notices/sha256/abc.png", "image/png");
+        storage.delete("notices/staging/x").get();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(root.resolve("notices/sha256/abc.png")));
+        assertFalse(Files.exists(root.resolve("notices/staging/x")));
+    }
+
+    @Test
+    void keysCannotEscapeTheRootOrReachTempFiles() throws Exception {
+        LocalStorageBackend storage = new LocalStorageBackend(root.toString(), PUBLIC_URL);
+
+        assertNull(storage.resolve("../outside.txt"));
+        assertNull(storage.resolve("notices/../../outside.txt"));
+        assertNull(storage.resolve("notices/.upload-123.tmp"));
+        assertNull(storage.resolve(""));
+        assertEquals(root.resolve("notices/a.pdf"), storage.resolve("notices/a.pdf"));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> storage.uploadBytes("../outside.txt", "text/plain", new byte[1]).get());
+        assertTrue(e.getCause().getMessage().startsWith("Invalid storage key"));
+    }
+}
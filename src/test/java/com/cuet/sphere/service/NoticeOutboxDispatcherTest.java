@@ -0,0 +1,97 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.NoticeOutbox;
+import com.cuet.sphere.repository.NoticeOutboxRepository;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.response.NoticeResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NoticeOutboxDispatcherTest {
+
+    private final NoticeOutboxRepository outboxRepository = mock(NoticeOutboxRepository.class);
+    private final NoticeRepository noticeRepository = mock(NoticeRepository.class);
+    private final WebSocketService webSocketService = mock(WebSocketService.class);
+    private final NoticeOutboxDispatcher dispatcher = new NoticeOutboxDispatcher();
+
+    NoticeOutboxDispatcherTest() {
+        ReflectionTestUtils.setField(dispatcher, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(dispatcher, "noticeRepository", noticeRepository);
+        ReflectionTestUtils.setField(dispatcher, "webSocketService", webSocketService);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "retryBaseMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "retryMaxMs", 60000L);
+    }
+
+    @Test
+    void sentNoticesLeaveTheOutbox() {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry(1L, 10L), entry(2L, 11L)));
+        when(noticeRepository.findResponsesByIds(anyList())).thenReturn(List.of(notice(10L), notice(11L)));
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        verify(webSocketService, times(2)).sendNoticeToBatchAndDepartment(any());
+        verify(outboxRepository).deleteByOutboxIds(List.of(1L, 2L));
+        verify(outboxRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void failedSendIsRetriedLaterAndStaysInTheOutbox() {
+        NoticeOutbox failing = entry(1L, 10L);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(failing, entry(2L, 11L)));
+        when(noticeRepository.findResponsesByIds(anyList())).thenReturn(List.of(notice(10L), notice(11L)));
+        doThrow(new IllegalStateException("broker down"))
+                .when(webSocketService).sendNoticeToBatchAndDepartment(argThat(n -> n.getNoticeId() == 10L));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchBatch();
+
+        verify(outboxRepository).deleteByOutboxIds(List.of(2L));
+        verify(outboxRepository).saveAll(List.of(failing));
+        assertEquals(1, failing.getAttempts());
+        assertFalse(failing.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+    }
+
+    @Test
+    void rowsOfDeletedNoticesAreDropped() {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry(1L, 10L)));
+        when(noticeRepository.findResponsesByIds(anyList())).thenReturn(List.of());
+
+        dispatcher.dispatchBatch();
+
+        verify(webSocketService, never()).sendNoticeToBatchAndDepartment(any());
+        verify(outboxRepository).deleteByOutboxIds(List.of(1L));
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertEquals(1000, dispatcher.backoffMillis(1));
+        assertEquals(4000, dispatcher.backoffMillis(3));
+        assertEquals(60000, dispatcher.backoffMillis(30));
+    }
+
+    private static NoticeOutbox entry(Long outboxId, Long noticeId) {
+        NoticeOutbox entry = new NoticeOutbox();
+        entry.setOutboxId(outboxId);
+        entry.setNoticeId(noticeId);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setNextAttemptAt(LocalDateTime.now());
+        return entry;
+    }
+
+    private static NoticeResponse notice(Long noticeId) {
+        NoticeResponse notice = new NoticeResponse();
+        notice.setNoticeId(noticeId);
+        notice.setBatch("22");
+        notice.setDepartment("CSE");
+        return notice;
+    }
+}
@@ -0,0 +1,109 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Notice;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.response.NoticeResponse;
+import com.cuet.sphere.response.NoticeSearchResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class NoticeSearchServiceTest {
+
+    private final NoticeRepository noticeRepository = mock(NoticeRepository.class);
+    private final NoticeSearchService service = new NoticeSearchService();
+    private final User student = new User();
+
+    NoticeSearchServiceTest() {
+        ReflectionTestUtils.setField(service, "noticeRepository", noticeRepository);
+        List<Notice> notices = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            notices.add(notice(id, "Midterm schedule " + id));
+        }
+        when(noticeRepository.findAll()).thenReturn(notices);
+        when(noticeRepository.findResponsesByIds(anyCollection())).thenAnswer(invocation -> {
+            List<NoticeResponse> responses = new ArrayList<>();
+            for (Object id : (Collection<?>) invocation.getArgument(0)) {
+                NoticeResponse response = new NoticeResponse();
+                response.setNoticeId((Long) id);
+                response.setTitle("Midterm schedule " + id);
+                response.setMessage("Details");
+                responses.add(response);
+            }
+            return responses;
+        });
+        service.rebuild();
+
+        student.setRole(User.Role.STUDENT);
+        student.setBatch("22");
+        student.setDepartment("04");
+    }
+
+    @Test
+    void pagesThroughResultsWithTheCursor() {
+        NoticeSearchResponse first = service.search(student, "midterm", null, 3);
+        NoticeSearchResponse second = service.search(student, "midterm", first.getNextCursor(), 3);
+
+        assertTrue(first.isHasMore());
+        assertEquals(3, first.getResults().size());
+        assertEquals(2, second.getResults().size());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void cursorKeepsWorkingWhileNoticesChange() {
+        NoticeSearchResponse first = service.search(student, "midterm", null, 3);
+
+        service.index(notice(6L, "Midterm room change"));
+        service.remove(5L);
+        NoticeSearchResponse second = service.search(student, "midterm", first.getNextCursor(), 3);
+
+        List<Long> seen = first.getResults().stream().map(result -> result.getNotice().getNoticeId()).toList();
+        assertFalse(second.getResults().isEmpty());
+        second.getResults().forEach(result -> assertFalse(seen.contains(result.getNotice().getNoticeId())));
+    }
+
+    @Test
+    void noticeIsSearchableOnlyOnceItsTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.indexAfterCommit(notice(6L, "Midterm room change"));
+            assertEquals(5, service.search(student, "midterm", null, 10).getResults().size());
+
+            // A rolled back transaction never runs afterCommit, so the notice stays out
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            assertEquals(6, service.search(student, "midterm", null, 10).getResults().size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.search(student, "midterm", "bm90LWEtY3Vyc29y", 3));
+    }
+
+    private static Notice notice(long id, String title) {
+        Notice notice = new Notice();
+        notice.setNoticeId(id);
+        notice.setTitle(title);
+        notice.setMessage("Details");
+        notice.setBatch("22");
+        notice.setDepartment("04");
+        notice.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+        return notice;
+    }
+}
@@ -0,0 +1,168 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.repository.ResourceRepository;
+import com.cuet.sphere.repository.StoredFileRepository;
+import com.cuet.sphere.repository.UserRepository;
+import com.cuet.sphere.response.OrphanCollectionReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrphanCollectorTest {
+
+    private static final String BUCKET_URL = "http://localhost/bucket";
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(3));
+
+    private final StorageBackend storage = mock(StorageBackend.class);
+    private final ContentAddressedStore contentStore = mock(ContentAddressedStore.class);
+    private final NoticeRepository noticeRepository = mock(NoticeRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final StoredFileRepository storedFileRepository = mock(StoredFileRepository.class);
+    private final OrphanCollector collector = new OrphanCollector();
+
+    private final List<StorageBackend.StoredObject> notices = new ArrayList<>();
+    private final List<StorageBackend.StoredObject> profiles = new ArrayList<>();
+
+    OrphanCollectorTest() throws Exception {
+        ReflectionTestUtils.setField(collector, "storageBackend", storage);
+        ReflectionTestUtils.setField(collector, "contentStore", contentStore);
+        ReflectionTestUtils.setField(collector, "noticeRepository", noticeRepository);
+        ReflectionTestUtils.setField(collector, "userRepository", userRepository);
+        ReflectionTestUtils.setField(collector, "resourceRepository", resourceRepository);
+        ReflectionTestUtils.setField(collector, "storedFileRepository", storedFileRepository);
+        ReflectionTestUtils.setField(collector, "minAgeHours", 24L);
+        ReflectionTestUtils.setField(collector, "maxOrphanFraction", 0.5);
+
+        when(storage.keyOf(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.startsWith(BUCKET_URL + "/") ? url.substring(BUCKET_URL.length() + 1) : null;
+        });
+        when(storage.deleteAll(anyList())).thenReturn(Collections.emptySet());
+        doAnswer(invocation -> {
+            Consumer<StorageBackend.StoredObject> consumer = invocation.getArgument(1);
+            List<StorageBackend.StoredObject> objects = "notices/".equals(invocation.getArgument(0)) ? notices : profiles;
+            objects.forEach(consumer);
+            return null;
+        }).when(storage).forEachObject(anyString(), any());
+        when(resourceRepository.findAllFilePaths()).thenReturn(List.of());
+        when(userRepository.findAllPictureUrls()).thenReturn(List.of());
+    }
+
+    @Test
+    void unreferencedObjectsAreDeleted() throws Exception {
+        notices.add(object("notices/kept.pdf", OLD));
+        notices.add(object("notices/kept-too.pdf", OLD));
+        notices.add(object("notices/gone.pdf", OLD));
+        when(noticeRepository.findAllAttachments())
+                .thenReturn(List.of(BUCKET_URL + "/notices/kept.pdf", BUCKET_URL + "/notices/kept-too.pdf?download=1"));
+
+        OrphanCollectionReport report = collector.collect(false);
+
+        verify(storage).deleteAll(List.of("notices/gone.pdf"));
+        verify(storedFileRepository).deleteByObjectKeys(List.of("notices/gone.pdf"));
+        assertEquals(3, report.getScannedObjects());
+        assertEquals(2, report.getReferencedObjects());
+        assertEquals(1, report.getDeletedObjects());
+        assertEquals(100, report.getReclaimedBytes());
+    }
+
+    @Test
+    void referencedPictureKeepsItsVariantsButNotAStoredOriginal() throws Exception {
+        profiles.add(object("profile/profile_1.png", OLD));
+        profiles.add(object("profile/profile_1_thumb.jpg", OLD));
+        profiles.add(object("profile/profile_1_full.jpg", OLD));
+        profiles.add(object("profile/profile_2_full.jpg", Instant.now()));
+        profiles.add(object("profile/profile_0_full.jpg", OLD));
+        when(noticeRepository.findAllAttachments()).thenReturn(List.of());
+        when(userRepository.findAllPictureUrls())
+                .thenReturn(List.<Object[]>of(new Object[] {BUCKET_URL + "/profile/profile_1_full.jpg", null}));
+
+        OrphanCollectionReport report = collector.collect(false);
+
+        // The original still carries the upload's metadata, so only its variants are kept
+        verify(storage).deleteAll(List.of("profile/profile_1.png", "profile/profile_0_full.jpg"));
+        assertEquals(2, report.getReferencedObjects());
+        assertEquals(1, report.getSkippedRecent());
+        assertEquals(2, report.getDeletedObjects());
+    }
+
+    @Test
+    void sharedAttachmentMatchedByNewUploadIsKept() throws Exception {
+        notices.add(object("notices/sha256/abc.pdf", OLD));
+        notices.add(object("notices/a.pdf", OLD));
+        notices.add(object("notices/b.pdf", OLD));
+        notices.add(object("notices/c.pdf", OLD));
+        when(noticeRepository.findAllAttachments()).thenReturn(List.of(
+                BUCKET_URL + "/notices/a.pdf", BUCKET_URL + "/notices/b.pdf", BUCKET_URL + "/notices/c.pdf"));
+        when(contentStore.isContentAddressed("notices/sha256/abc.pdf")).thenReturn(true);
+        when(contentStore.claimOrphan(eq("notices/sha256/abc.pdf"), any(), any())).thenReturn(false);
+
+        OrphanCollectionReport report = collector.collect(false);
+
+        verify(storage, never()).deleteAll(anyList());
+        assertEquals(0, report.getDeletedObjects());
+        assertEquals(1, report.getSkippedRecent());
+    }
+
+    @Test
+    void nothingIsDeletedWhenMostObjectsLookOrphaned() throws Exception {
+        notices.add(object("notices/a.pdf", OLD));
+        notices.add(object("notices/b.pdf", OLD));
+        when(noticeRepository.findAllAttachments()).thenReturn(List.of("https://old-bucket.example.com/elsewhere/a.pdf"));
+
+        OrphanCollectionReport report = collector.collect(false);
+
+        assertNotNull(report.getAborted());
+        assertEquals(2, report.getOrphanObjects());
+        verify(storage, never()).deleteAll(anyList());
+        verify(storedFileRepository, never()).deletePendingCreatedBefore(any());
+    }
+
+    @Test
+    void dryRunOnlyCounts() throws Exception {
+        notices.add(object("notices/kept.pdf", OLD));
+        notices.add(object("notices/gone.pdf", OLD));
+        when(noticeRepository.findAllAttachments()).thenReturn(List.of(BUCKET_URL + "/notices/kept.pdf"));
+
+        OrphanCollectionReport report = collector.collect(true);
+
+        assertEquals(1, report.getOrphanObjects());
+        assertEquals(100, report.getOrphanBytes());
+        verify(storage, never()).deleteAll(anyList());
+        assertSame(report, collector.getLastReport());
+    }
+
+    @Test
+    void failedDeletesAreCounted() throws Exception {
+        notices.add(object("notices/kept.pdf", OLD));
+        notices.add(object("notices/gone.pdf", OLD));
+        when(noticeRepository.findAllAttachments()).thenReturn(List.of(BUCKET_URL + "/notices/kept.pdf"));
+        when(storage.deleteAll(anyList())).thenReturn(Set.of("notices/gone.pdf"));
+
+        OrphanCollectionReport report = collector.collect(false);
+
+        assertEquals(1, report.getFailedDeletes());
+        assertEquals(0, report.getDeletedObjects());
+        verify(storedFileRepository, never()).deleteByObjectKeys(any());
+    }
+
+    private static StorageBackend.StoredObject object(String key, Instant lastModified) {
+        return new StorageBackend.StoredObject(key, 100, lastModified);
+    }
+}
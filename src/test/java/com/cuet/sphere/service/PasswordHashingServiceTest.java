@@ -0,0 +1,140 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.config.AdaptiveBCryptPasswordEncoder;
+import com.cuet.sphere.event.UserChangedEvent;
+import com.cuet.sphere.exception.AuthenticationBusyException;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    // One worker and one queue slot; every hash blocks until the test releases it
+    private PasswordHashingService blockingService(long timeoutMillis) {
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return "hash:" + invocation.getArgument(0);
+        });
+        service = new PasswordHashingService(encoder, mock(UserRepository.class), mock(ApplicationEventPublisher.class),
+                1, 1, timeoutMillis, 3);
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void requestThreadDoesNotWaitForTheHash() throws Exception {
+        blockingService(10_000);
+
+        CompletableFuture<String> hash = service.encode("secret");
+        assertFalse(hash.isDone());
+
+        release.countDown();
+        assertEquals("hash:secret", hash.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() {
+        blockingService(10_000);
+        service.encode("running");
+        service.encode("queued");
+
+        CompletableFuture<String> rejected = service.encode("rejected");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        AuthenticationBusyException busy = assertInstanceOf(AuthenticationBusyException.class, e.getCause());
+        assertEquals(3, busy.getRetryAfterSeconds());
+    }
+
+    @Test
+    void hashThatTimesOutInTheQueueIsDroppedAndNeverRun() throws Exception {
+        blockingService(500);
+        CompletableFuture<String> running = service.encode("running");
+        CompletableFuture<String> queued = service.encode("queued");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AuthenticationBusyException.class, e.getCause());
+
+        // Its queue slot is free again while the first hash is still running
+        CompletableFuture<String> probe = service.encode("probe");
+        assertFalse(probe.isDone());
+
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        verify(encoder, timeout(5000)).encode("probe");
+        verify(encoder, never()).encode("queued");
+    }
+
+    @Test
+    void staleHashIsRehashedAtTheCurrentCost() {
+        UserRepository users = mock(UserRepository.class);
+        ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+        service = new PasswordHashingService(new AdaptiveBCryptPasswordEncoder(5), users, events, 1, 1, 10_000, 1);
+        User user = user(new BCryptPasswordEncoder(4).encode("secret"));
+        when(users.findById(1L)).thenReturn(Optional.of(user(user.getPassword())));
+
+        service.rehashIfNeeded(user, "secret");
+
+        verify(users, timeout(5000)).save(argThat(saved -> AdaptiveBCryptPasswordEncoder.strengthOf(saved.getPassword()) == 5));
+        verify(events, timeout(5000)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void passwordChangedWhileHashingIsNotOverwritten() throws Exception {
+        UserRepository users = mock(UserRepository.class);
+        service = new PasswordHashingService(new AdaptiveBCryptPasswordEncoder(5), users, mock(ApplicationEventPublisher.class),
+                1, 1, 10_000, 1);
+        User user = user(new BCryptPasswordEncoder(4).encode("secret"));
+        when(users.findById(1L)).thenReturn(Optional.of(user(new BCryptPasswordEncoder(4).encode("changed"))));
+
+        service.rehashIfNeeded(user, "secret");
+
+        verify(users, timeout(5000)).findById(1L);
+        service.shutdown();
+        verify(users, never()).save(any());
+    }
+
+    @Test
+    void currentCostIsNotRehashed() {
+        UserRepository users = mock(UserRepository.class);
+        AdaptiveBCryptPasswordEncoder current = new AdaptiveBCryptPasswordEncoder(4);
+        service = new PasswordHashingService(current, users, mock(ApplicationEventPublisher.class), 1, 1, 10_000, 1);
+
+        service.rehashIfNeeded(user(current.encode("secret")), "secret");
+
+        verifyNoInteractions(users);
+    }
+
+    private static User user(String password) {
+        User user = new User();
+        user.setId(1L);
+        user.setPassword(password);
+        return user;
+    }
+}
@@ -0,0 +1,182 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import com.cuet.sphere.model.StoredFile;
+import com.cuet.sphere.model.User;
+import com.cuet.sphere.repository.NoticeRepository;
+import com.cuet.sphere.repository.ResourceRepository;
+import com.cuet.sphere.repository.StoredFileRepository;
+import com.cuet.sphere.response.PresignedUploadRequest;
+import com.cuet.sphere.response.PresignedUploadResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Signs against a local S3-compatible endpoint (as used with MinIO), so no network is needed
+class PresignedUploadServiceTest {
+
+    private static final String BUCKET_URL = "http://localhost:9000/uploads";
+
+    private final S3Presigner presigner = S3Presigner.builder()
+            .region(Region.US_EAST_1)
+            .endpointOverride(URI.create("http://localhost:9000"))
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("minio", "minio123")))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+            .build();
+    private final S3Client s3Client = mock(S3Client.class);
+    private final StoredFileRepository repository = mock(StoredFileRepository.class);
+    private final NoticeRepository noticeRepository = mock(NoticeRepository.class);
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final PresignedUploadService service = new PresignedUploadService(presigner, s3Client, repository,
+            noticeRepository, resourceRepository, "uploads", BUCKET_URL, 300, 600);
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void uploadUrlSignsTypeAndSize() throws Exception {
+        PresignedUploadResponse response = service.createUpload(request(StoredFile.Purpose.ATTACHMENT, "application/pdf", 2048L), user(1L));
+
+        assertTrue(response.getObjectKey().startsWith("notices/"));
+        assertTrue(response.getObjectKey().endsWith(".pdf"));
+        assertTrue(response.getUploadUrl().startsWith("http://localhost:9000/uploads/notices/"));
+        assertTrue(response.getUploadUrl().contains("X-Amz-Signature="));
+        assertEquals("application/pdf", response.getHeaders().get("content-type"));
+        assertEquals("2048", response.getHeaders().get("content-length"));
+        assertEquals(BUCKET_URL + "/" + response.getObjectKey(), response.getFileUrl());
+        verify(repository).save(argThat(file -> file.getStatus() == StoredFile.Status.PENDING && file.getSizeBytes() == 2048L));
+    }
+
+    @Test
+    void uploadRulesMatchTheUploadEndpoints() {
+        assertThrows(UserException.class, () -> service.createUpload(
+                request(StoredFile.Purpose.ATTACHMENT, "application/pdf", 11L * 1024 * 1024), user(1L)));
+        assertThrows(UserException.class, () -> service.createUpload(
+                request(StoredFile.Purpose.PROFILE, "image/png", 6L * 1024 * 1024), user(1L)));
+        assertThrows(UserException.class, () -> service.createUpload(
+                request(StoredFile.Purpose.PROFILE, "application/pdf", 1024L), user(1L)));
+        assertThrows(UserException.class, () -> service.createUpload(
+                request(StoredFile.Purpose.ATTACHMENT, "application/zip", 1024L), user(1L)));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void completeRecordsMatchingObject() throws Exception {
+        StoredFile pending = pending("notices/a.pdf", 2048L, user(1L));
+        when(repository.findByObjectKey("notices/a.pdf")).thenReturn(pending);
+        when(s3Client.headObject(any(Consumer.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength(2048L).eTag("\"abc\"").build());
+
+        String fileUrl = service.completeUpload("notices/a.pdf", user(1L));
+
+        assertEquals(BUCKET_URL + "/notices/a.pdf", fileUrl);
+        assertEquals(StoredFile.Status.COMPLETE, pending.getStatus());
+        assertEquals("\"abc\"", pending.getEtag());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void completeRejectsOtherUsersAndWrongSizes() {
+        StoredFile pending = pending("notices/a.pdf", 2048L, user(1L));
+        when(repository.findByObjectKey("notices/a.pdf")).thenReturn(pending);
+        when(s3Client.headObject(any(Consumer.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength(4096L).build());
+
+        assertThrows(UserException.class, () -> service.completeUpload("notices/a.pdf", user(2L)));
+        assertThrows(UserException.class, () -> service.completeUpload("notices/a.pdf", user(1L)));
+
+        verify(s3Client).deleteObject(any(Consumer.class));
+        verify(repository).delete(pending);
+    }
+
+    @Test
+    void downloadOnlyCoversUploadedFiles() throws Exception {
+        Map<String, Object> download = service.createDownload(BUCKET_URL + "/profile/me.png", student(1L));
+
+        assertEquals("profile/me.png", download.get("objectKey"));
+        assertTrue(download.get("downloadUrl").toString().contains("X-Amz-Expires=600"));
+        assertThrows(UserException.class, () -> service.createDownload("secrets/keys.txt", student(1L)));
+        assertThrows(UserException.class, () -> service.createDownload("notices/../secrets/keys.txt", student(1L)));
+    }
+
+    @Test
+    void downloadOfAttachmentFollowsNoticeAudience() throws Exception {
+        when(noticeRepository.existsAttachmentForAudience(BUCKET_URL + "/notices/a.pdf", "22", "04")).thenReturn(true);
+
+        assertEquals("notices/a.pdf", service.createDownload("notices/a.pdf", student(1L)).get("objectKey"));
+
+        User otherDepartment = student(2L);
+        otherDepartment.setDepartment("03");
+        UserException e = assertThrows(UserException.class, () -> service.createDownload("notices/a.pdf", otherDepartment));
+        assertTrue(e.getMessage().startsWith("Access denied"));
+    }
+
+    @Test
+    void downloadOfResourceFileFollowsResourceAudience() throws Exception {
+        when(resourceRepository.existsFileForAudience(BUCKET_URL + "/notices/r.pdf", "22", "04")).thenReturn(true);
+
+        assertEquals("notices/r.pdf", service.createDownload(BUCKET_URL + "/notices/r.pdf", student(1L)).get("objectKey"));
+    }
+
+    @Test
+    void ownUploadAndAdminAreAllowed() throws Exception {
+        when(repository.findByObjectKey("notices/mine.pdf")).thenReturn(pending("notices/mine.pdf", 10L, user(1L)));
+        User admin = user(9L);
+        admin.setRole(User.Role.SYSTEM_ADMIN);
+
+        assertNotNull(service.createDownload("notices/mine.pdf", student(1L)).get("downloadUrl"));
+        assertThrows(UserException.class, () -> service.createDownload("notices/mine.pdf", student(2L)));
+        assertNotNull(service.createDownload("notices/anything.pdf", admin).get("downloadUrl"));
+    }
+
+    private static PresignedUploadRequest request(StoredFile.Purpose purpose, String contentType, Long size) {
+        PresignedUploadRequest request = new PresignedUploadRequest();
+        request.setPurpose(purpose);
+        request.setFilename("notes.PDF");
+        request.setContentType(contentType);
+        request.setSize(size);
+        return request;
+    }
+
+    private static StoredFile pending(String key, long size, User owner) {
+        StoredFile file = new StoredFile();
+        file.setObjectKey(key);
+        file.setPurpose(StoredFile.Purpose.ATTACHMENT);
+        file.setContentType("application/pdf");
+        file.setSizeBytes(size);
+        file.setStatus(StoredFile.Status.PENDING);
+        file.setOwner(owner);
+        return file;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static User student(Long id) {
+        User user = user(id);
+        user.setRole(User.Role.STUDENT);
+        user.setBatch("22");
+        user.setDepartment("04");
+        return user;
+    }
+}
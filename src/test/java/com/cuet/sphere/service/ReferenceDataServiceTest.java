@@ -0,0 +1,116 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.model.Course;
+import com.cuet.sphere.model.Department;
+import com.cuet.sphere.model.Semester;
+import com.cuet.sphere.repository.CourseRepository;
+import com.cuet.sphere.repository.DepartmentRepository;
+import com.cuet.sphere.repository.SemesterRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataServiceTest {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final SemesterRepository semesterRepository = mock(SemesterRepository.class);
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final ReferenceDataService service = new ReferenceDataService();
+
+    private final Department cse = department(4L, "04", "CSE");
+    private final List<Course> courses = new ArrayList<>();
+
+    ReferenceDataServiceTest() {
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "semesterRepository", semesterRepository);
+        ReflectionTestUtils.setField(service, "departmentRepository", departmentRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+
+        courses.add(course(1L, "CSE-101", cse));
+        when(departmentRepository.findAll()).thenReturn(List.of(cse));
+        when(semesterRepository.findAll()).thenReturn(List.of(semester(1L, "Level 1 Term 1")));
+        when(courseRepository.findAllWithDepartment()).thenAnswer(invocation -> new ArrayList<>(courses));
+    }
+
+    @Test
+    void lookupsAreServedFromTheSnapshot() {
+        service.refresh();
+
+        assertEquals(1L, service.findCourse("CSE-101").getId());
+        assertEquals("04", service.findDepartment("CSE").getCode());
+        assertEquals(1L, service.findSemester("Level 1 Term 1").getId());
+        verify(courseRepository, never()).findByCourseCode(any());
+    }
+
+    @Test
+    void refreshSwapsInANewSnapshotAndLeavesTheOldOneIntact() {
+        ReferenceDataService.Snapshot before = service.refresh();
+
+        courses.add(course(2L, "CSE-201", cse));
+        ReferenceDataService.Snapshot after = service.refresh();
+
+        assertNotSame(before, after);
+        assertSame(after, service.getSnapshot());
+        assertEquals(1, before.getCourses().size());
+        assertEquals(2, after.getCourses().size());
+        assertNotEquals(before.getEtag(), after.getEtag());
+    }
+
+    @Test
+    void etagOnlyChangesWithTheContent() {
+        String first = service.refresh().getEtag();
+
+        assertEquals(first, service.refresh().getEtag());
+    }
+
+    @Test
+    void missThatExistsInTheDatabaseRefreshes() {
+        service.refresh();
+        Course added = course(2L, "CSE-201", cse);
+        courses.add(added);
+        when(courseRepository.findByCourseCode("CSE-201")).thenReturn(added);
+
+        assertEquals(2L, service.findCourse("CSE-201").getId());
+        verify(courseRepository, times(2)).findAllWithDepartment();
+    }
+
+    @Test
+    void missThatIsNotInTheDatabaseDoesNotRefresh() {
+        service.refresh();
+
+        assertNull(service.findCourse("NOPE-999"));
+        assertNull(service.findCourse(null));
+        verify(courseRepository, times(1)).findAllWithDepartment();
+    }
+
+    private static Department department(Long id, String code, String name) {
+        Department department = new Department();
+        department.setDeptId(id);
+        department.setDeptCode(code);
+        department.setDeptName(name);
+        return department;
+    }
+
+    private static Semester semester(Long id, String name) {
+        Semester semester = new Semester();
+        semester.setSemesterId(id);
+        semester.setSemesterName(name);
+        return semester;
+    }
+
+    private static Course course(Long id, String code, Department department) {
+        Course course = new Course();
+        course.setCourseId(id);
+        course.setCourseCode(code);
+        course.setCourseName("Course " + code);
+        course.setDepartment(department);
+        return course;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.StorageBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3AsyncStorageServiceTest {
+
+    private final S3AsyncClient s3AsyncClient = mock(S3AsyncClient.class);
+    private final List<CompletableFuture<DeleteObjectResponse>> calls = new ArrayList<>();
+    private final S3AsyncStorageService service =
+            new S3AsyncStorageService(s3AsyncClient, "bucket", "http://localhost/bucket", 2, 1);
+
+    @SuppressWarnings("unchecked")
+    S3AsyncStorageServiceTest() {
+        when(s3AsyncClient.deleteObject(any(Consumer.class))).thenAnswer(invocation -> {
+            CompletableFuture<DeleteObjectResponse> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void queuesBeyondTheInFlightLimitAndRejectsBeyondTheQueue() {
+        CompletableFuture<Void> first = service.deleteObject("a");
+        CompletableFuture<Void> second = service.deleteObject("b");
+        CompletableFuture<Void> queued = service.deleteObject("c");
+        CompletableFuture<Void> rejected = service.deleteObject("d");
+
+        assertEquals(2, calls.size());
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(StorageBusyException.class, e.getCause());
+
+        calls.get(0).complete(DeleteObjectResponse.builder().build());
+
+        assertTrue(first.isDone());
+        assertEquals(3, calls.size());
+        assertFalse(queued.isDone());
+        assertEquals(2, service.getStats().get("inFlight"));
+        assertEquals(0, service.getStats().get("queued"));
+
+        calls.get(1).complete(DeleteObjectResponse.builder().build());
+        calls.get(2).complete(DeleteObjectResponse.builder().build());
+
+        assertTrue(second.isDone());
+        assertTrue(queued.isDone());
+        assertEquals(0, service.getStats().get("inFlight"));
+    }
+
+    @Test
+    void failuresReachTheCallerAndFreeTheSlot() {
+        CompletableFuture<Void> failing = service.deleteObject("a");
+        calls.get(0).completeExceptionally(new IllegalStateException("access denied"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, failing::get);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(0, service.getStats().get("inFlight"));
+        assertEquals(1L, service.getStats().get("failed"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class S3ServiceTest {
+
+    private static final String BUCKET_URL = "http://localhost/bucket";
+    private static final String SHARED = "notices/sha256/abc.pdf";
+
+    private final StorageBackend storage = mock(StorageBackend.class);
+    private final ContentAddressedStore contentStore = mock(ContentAddressedStore.class);
+    private final S3Service service = new S3Service();
+
+    S3ServiceTest() {
+        ReflectionTestUtils.setField(service, "storageBackend", storage);
+        ReflectionTestUtils.setField(service, "contentStore", contentStore);
+        when(storage.keyOf(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.startsWith(BUCKET_URL + "/") ? url.substring(BUCKET_URL.length() + 1) : null;
+        });
+        when(contentStore.isContentAddressed(SHARED)).thenReturn(true);
+    }
+
+    @Test
+    void sharedAttachmentIsReleasedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.releaseFileAfterCommit(BUCKET_URL + "/" + SHARED);
+            verify(contentStore, never()).release(anyString());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            verify(contentStore).release(SHARED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void otherFilesAreLeftForTheOrphanCollector() {
+        service.releaseFile(BUCKET_URL + "/notices/1234.pdf");
+        service.releaseFile("https://elsewhere.example.com/a.pdf");
+
+        verify(contentStore, never()).release(anyString());
+        verify(storage, never()).delete(anyString());
+    }
+
+    @Test
+    void retainingADeletedAttachmentFails() {
+        when(contentStore.retain(SHARED)).thenReturn(false);
+
+        UserException e = assertThrows(UserException.class, () -> service.retainFile(BUCKET_URL + "/" + SHARED));
+        assertEquals("Attachment is no longer available, upload it again", e.getMessage());
+    }
+}
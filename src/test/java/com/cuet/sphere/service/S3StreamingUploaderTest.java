@@ -0,0 +1,98 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UserException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3StreamingUploaderTest {
+
+    private static final int PART = S3StreamingUploader.MIN_PART_SIZE;
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final Map<Integer, Integer> partLengths = new ConcurrentHashMap<>();
+    private final S3StreamingUploader uploader = new S3StreamingUploader(s3Client, "bucket", PART, 2, 4, 1000);
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void smallFileUsesOnePut() throws Exception {
+        uploader.upload(new ByteArrayInputStream(new byte[1024]), "notices/a.pdf", "application/pdf", Long.MAX_VALUE);
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void largeFileIsSentInOrderedParts() throws Exception {
+        stubMultipart();
+
+        uploader.upload(new ByteArrayInputStream(new byte[2 * PART + 100]), "notices/big.pdf", "application/pdf", Long.MAX_VALUE);
+
+        assertEquals(Map.of(1, PART, 2, PART, 3, 100), partLengths);
+        verify(s3Client).completeMultipartUpload(any(Consumer.class));
+        verify(s3Client, never()).abortMultipartUpload(any(Consumer.class));
+        assertEquals(0, uploader.getStats().get("buffersInUse"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void oversizedStreamIsAborted() {
+        stubMultipart();
+
+        assertThrows(UserException.class, () -> uploader.upload(
+                new ByteArrayInputStream(new byte[PART + 10]), "notices/big.pdf", "application/pdf", PART));
+
+        verify(s3Client).abortMultipartUpload(any(Consumer.class));
+        verify(s3Client, never()).completeMultipartUpload(any(Consumer.class));
+        assertEquals(0, uploader.getStats().get("buffersInUse"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedPartAbortsUpload() {
+        stubMultipart();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(new RuntimeException("connection reset"));
+
+        assertThrows(IOException.class, () -> uploader.upload(
+                new ByteArrayInputStream(new byte[3 * PART]), "notices/big.pdf", "application/pdf", Long.MAX_VALUE));
+
+        verify(s3Client).abortMultipartUpload(any(Consumer.class));
+        assertEquals(0, uploader.getStats().get("buffersInUse"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubMultipart() {
+        when(s3Client.createMultipartUpload(any(Consumer.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            RequestBody body = invocation.getArgument(1);
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                partLengths.put(request.partNumber(), in.readAllBytes().length);
+            }
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.cuet.sphere.service;
+
+import com.cuet.sphere.exception.UploadRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionServiceTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-01T23:59:00Z"));
+
+    @Test
+    void refusesOnceTheGlobalByteBudgetIsUsed() {
+        UploadAdmissionService admission = new UploadAdmissionService(15 * MB, 5, 1000 * MB, 10 * MB, 5, clock);
+
+        UploadAdmissionService.Permit first = admission.admit("a@cuet", 10 * MB);
+        UploadRejectedException e = assertThrows(UploadRejectedException.class, () -> admission.admit("b@cuet", 10 * MB));
+        assertEquals(5, e.getRetryAfterSeconds());
+
+        first.release(true);
+        admission.admit("b@cuet", 10 * MB);
+        assertEquals(10 * MB, admission.getStats().get("inFlightBytes"));
+        assertEquals(10 * MB, admission.getStats().get("rejectedBytes"));
+    }
+
+    @Test
+    void limitsUploadsInProgressPerUser() {
+        UploadAdmissionService admission = new UploadAdmissionService(100 * MB, 2, 1000 * MB, 10 * MB, 5, clock);
+
+        admission.admit("a@cuet", MB);
+        UploadAdmissionService.Permit second = admission.admit("a@cuet", MB);
+        assertThrows(UploadRejectedException.class, () -> admission.admit("a@cuet", MB));
+        admission.admit("b@cuet", MB);
+
+        second.release(true);
+        second.release(true);
+        admission.admit("a@cuet", MB);
+        assertThrows(UploadRejectedException.class, () -> admission.admit("a@cuet", MB));
+        assertEquals(2L, admission.getStats().get("rejectedConcurrent"));
+    }
+
+    @Test
+    void dailyQuotaRefundsFailuresAndResetsAtMidnight() {
+        UploadAdmissionService admission = new UploadAdmissionService(100 * MB, 5, 15 * MB, 10 * MB, 5, clock);
+
+        admission.admit("a@cuet", 10 * MB).release(true);
+        admission.admit("a@cuet", 4 * MB).release(false);
+        UploadRejectedException e = assertThrows(UploadRejectedException.class, () -> admission.admit("a@cuet", 10 * MB));
+        assertEquals(60, e.getRetryAfterSeconds());
+
+        clock.instant = Instant.parse("2025-03-02T00:00:01Z");
+        admission.admit("a@cuet", 10 * MB);
+        assertEquals(4 * MB, admission.getStats().get("refundedBytes"));
+    }
+
+    @Test
+    void undeclaredLengthsAreChargedTheMaximum() {
+        UploadAdmissionService admission = new UploadAdmissionService(100 * MB, 5, 1000 * MB, 10 * MB, 5, clock);
+
+        assertEquals(10 * MB, admission.admit("a@cuet", -1).getBytes());
+        assertEquals(10 * MB, admission.admit("a@cuet", 50 * MB).getBytes());
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void parsesClosedOpenAndSuffixRanges() {
+        assertRange(0, 99, ByteRange.parse("bytes=0-99", 1000));
+        assertRange(500, 999, ByteRange.parse("bytes=500-", 1000));
+        assertRange(900, 999, ByteRange.parse("bytes=-100", 1000));
+    }
+
+    @Test
+    void clampsToTheEndOfTheFile() {
+        assertRange(900, 999, ByteRange.parse("bytes=900-5000", 1000));
+        assertRange(0, 999, ByteRange.parse("bytes=-5000", 1000));
+    }
+
+    @Test
+    void rangesPastTheEndAreUnsatisfiable() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void malformedOrMultipleRangesMeanTheWholeFile() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1000));
+        assertNull(ByteRange.parse("bytes=9-1", 1000));
+        assertNull(ByteRange.parse("bytes=a-b", 1000));
+        assertNull(ByteRange.parse("bytes=100", 1000));
+    }
+
+    private static void assertRange(long start, long end, ByteRange range) {
+        assertNotNull(range);
+        assertEquals(start, range.getStart());
+        assertEquals(end, range.getEnd());
+        assertEquals(end - start + 1, range.length());
+    }
+}
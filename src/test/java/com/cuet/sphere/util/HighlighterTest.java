@@ -0,0 +1,33 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HighlighterTest {
+
+    @Test
+    void marksWholeWordsAndPrefixes() {
+        assertEquals("<mark>Midterm</mark> exam <mark>schedule</mark>",
+                Highlighter.highlight("Midterm exam schedule", List.of("midterm", "sched")));
+    }
+
+    @Test
+    void escapesHtml() {
+        assertEquals("&lt;b&gt;<mark>lab</mark>&lt;/b&gt; &amp; more",
+                Highlighter.highlight("<b>lab</b> & more", List.of("lab")));
+    }
+
+    @Test
+    void snippetCentersOnFirstMatch() {
+        String message = "Intro ".repeat(40) + "the quiz moves to Sunday " + "filler ".repeat(40);
+
+        String snippet = Highlighter.snippet(message, List.of("quiz"), 80);
+
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.endsWith("…"));
+        assertTrue(snippet.contains("<mark>quiz</mark>"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1, "22:04", 100, new InvertedIndex.Terms()
+                .add("Data Structures lecture notes", 3f)
+                .add("Linked lists and trees", 1f));
+        index.put(2, "22:04", 200, new InvertedIndex.Terms()
+                .add("Algorithms assignment", 3f)
+                .add("Covers data structures briefly", 1f));
+        index.put(3, "22:03", 300, new InvertedIndex.Terms()
+                .add("Data Structures lab manual", 3f));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        List<Long> ids = ids(index.search("data structures", "22:04"));
+
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        assertEquals(List.of(1L), ids(index.search("structures trees", "22:04")));
+        assertTrue(index.search("structures graphs", "22:04").isEmpty());
+    }
+
+    @Test
+    void matchesPrefixes() {
+        assertEquals(List.of(2L), ids(index.search("algo", "22:04")));
+    }
+
+    @Test
+    void filtersByScope() {
+        assertEquals(List.of(3L), ids(index.search("lab", "22:03")));
+        assertEquals(3, index.search("data", null).size());
+    }
+
+    @Test
+    void prefixExpansionIsNotCrowdedOutByOtherScopes() {
+        // Far more words starting with "st" elsewhere than the expansion cap allows
+        for (int i = 0; i < 200; i++) {
+            index.put(1000 + i, "21:01", i, new InvertedIndex.Terms().addTerm("st" + String.format("%03d", i), 1f));
+        }
+        index.put(4, "22:04", 400, new InvertedIndex.Terms().add("Statistics quiz", 3f));
+
+        assertEquals(List.of(4L), ids(index.search("stat", "22:04")));
+        assertTrue(ids(index.search("st", "22:04")).contains(4L));
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        index.put(1, "22:04", 100, new InvertedIndex.Terms().add("Operating systems", 3f));
+        assertEquals(List.of(2L), ids(index.search("structures", "22:04")));
+
+        index.remove(1);
+        assertTrue(index.search("operating", "22:04").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void pagesAfterACursorHit() {
+        List<InvertedIndex.Hit> first = index.search("data", null, null, 2);
+        List<InvertedIndex.Hit> rest = index.search("data", null, first.get(1), 2);
+
+        assertEquals(2, first.size());
+        assertEquals(1, rest.size());
+        assertFalse(ids(first).contains(rest.get(0).getId()));
+    }
+
+    @Test
+    void pagesMatchTheFullRanking() {
+        for (int i = 0; i < 50; i++) {
+            index.put(100 + i, "22:04", i % 7, new InvertedIndex.Terms().add("data set " + i, 1f + (i % 3)));
+        }
+        List<Long> expected = ids(index.search("data", "22:04"));
+
+        List<Long> paged = new ArrayList<>();
+        InvertedIndex.Hit after = null;
+        while (true) {
+            List<InvertedIndex.Hit> hits = index.search("data", "22:04", after, 7);
+            if (hits.isEmpty()) {
+                break;
+            }
+            paged.addAll(ids(hits));
+            after = hits.get(hits.size() - 1);
+        }
+
+        assertEquals(expected, paged);
+    }
+
+    private List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,58 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoticeCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 14, 5, 0, 123_456_789);
+
+        NoticeCursor decoded = NoticeCursor.decode(new NoticeCursor(createdAt, 42L).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getNoticeId());
+    }
+
+    @Test
+    void roundTripsWholeMinutes() {
+        // LocalDateTime.toString drops zero seconds ("2024-03-09T14:05"), which must still parse
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 14, 5);
+
+        assertEquals(createdAt, NoticeCursor.decode(new NoticeCursor(createdAt, 1L).encode()).getCreatedAt());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = new NoticeCursor(LocalDateTime.of(2024, 3, 9, 14, 5, 7), Long.MAX_VALUE).encode();
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertInvalid(null);
+        assertInvalid("");
+        assertInvalid("not base64!");
+        assertInvalid(encode("2024-03-09T14:05:07"));
+        assertInvalid(encode("yesterday|42"));
+        assertInvalid(encode("2024-03-09T14:05:07|"));
+        assertInvalid(encode("2024-03-09T14:05:07|forty-two"));
+        assertInvalid(encode("|42"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> NoticeCursor.decode(cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
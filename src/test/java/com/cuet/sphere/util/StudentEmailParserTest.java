@@ -0,0 +1,44 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudentEmailParserTest {
+
+    @Test
+    void packsBatchDepartmentAndRoll() {
+        int packed = StudentEmailParser.parsePacked("u2204015@student.cuet.ac.bd");
+
+        assertEquals(22, StudentEmailParser.batchOf(packed));
+        assertEquals(4, StudentEmailParser.departmentOf(packed));
+        assertEquals(15, StudentEmailParser.rollOf(packed));
+        assertEquals("2204015", StudentEmailParser.formatStudentId(packed));
+        assertEquals(packed, StudentEmailParser.pack("22", "04", "015"));
+    }
+
+    @Test
+    void rejectsMalformedEmails() {
+        assertEquals(StudentEmailParser.INVALID, StudentEmailParser.parsePacked(null));
+        assertEquals(StudentEmailParser.INVALID, StudentEmailParser.parsePacked("x2204015@student.cuet.ac.bd"));
+        assertEquals(StudentEmailParser.INVALID, StudentEmailParser.parsePacked("u22040a5@student.cuet.ac.bd"));
+        assertEquals(StudentEmailParser.INVALID, StudentEmailParser.parsePacked("u2204015@student.cuet.ac.bx"));
+        assertThrows(IllegalArgumentException.class, () -> StudentEmailParser.parseStudentEmail("u220401@student.cuet.ac.bd"));
+    }
+
+    @Test
+    void packedIdsSortLikeStudentIds() {
+        int earlier = StudentEmailParser.parsePacked("u2104999@student.cuet.ac.bd");
+        int later = StudentEmailParser.parsePacked("u2201001@student.cuet.ac.bd");
+
+        assertTrue(earlier < later);
+    }
+
+    @Test
+    void longerIdsStillParse() {
+        StudentEmailParser.StudentInfo info = StudentEmailParser.parseStudentEmail("u22041234@student.cuet.ac.bd");
+
+        assertEquals("1234", info.getStudentId());
+        assertEquals("22041234", info.getFullStudentId());
+    }
+}
@@ -0,0 +1,55 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.put(1, "22:04", "saimun", "Saimun Islam", "2204015", "u2204015@student.cuet.ac.bd");
+        index.put(2, "22:04", "rahim", "Abdur Rahim", "2204001", "u2204001@student.cuet.ac.bd");
+        index.put(3, "22:04", "islam", "Islam Uddin", "2204020", "u2204020@student.cuet.ac.bd");
+        index.put(4, "21:03", "other", "Saiful Hasan", "2103002", "u2103002@student.cuet.ac.bd");
+    }
+
+    @Test
+    void ranksPrefixAboveWordPrefix() {
+        assertEquals(List.of("islam", "saimun"), index.search("islam", "22:04"));
+    }
+
+    @Test
+    void matchesStudentIdAndEmailSubstrings() {
+        assertEquals(List.of("saimun"), index.search("2204015", "22:04"));
+        assertEquals(List.of("rahim"), index.search("04001@stu", "22:04"));
+    }
+
+    @Test
+    void shortQueriesScanTheScope() {
+        assertEquals(List.of("saimun"), index.search("sa", "22:04"));
+        assertEquals(2, index.search("sa", null).size());
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals(List.of("rahim"), index.search("abdur rahin", "22:04"));
+    }
+
+    @Test
+    void replacesAndRemovesEntries() {
+        index.put(2, "22:04", "rahim", "Abdul Karim", "2204001", "u2204001@student.cuet.ac.bd");
+        assertTrue(index.search("rahim", "22:04").isEmpty());
+        assertEquals(List.of("rahim"), index.search("karim", "22:04"));
+
+        index.remove(2);
+        assertTrue(index.search("karim", null).isEmpty());
+        assertEquals(3, index.size());
+    }
+}
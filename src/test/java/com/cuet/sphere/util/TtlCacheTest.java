@@ -0,0 +1,99 @@
+package com.cuet.sphere.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1000, now::get);
+        cache.put("a", "1");
+
+        now.addAndGet(999);
+        assertEquals("1", cache.get("a"));
+        now.addAndGet(1);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void earlierDeadlineWinsOverTheTtl() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 60_000, now::get);
+        cache.put("a", "1", now.get() + 100);
+        cache.put("b", "2", now.get());
+
+        assertNull(cache.get("b"));
+        now.addAndGet(100);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1000, now::get);
+        cache.put("a", "1");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void loaderResultIsCachedButNullIsNot() {
+        TtlCache<String, String> cache = new TtlCache<>(10, 1000, now::get);
+        AtomicLong loads = new AtomicLong();
+
+        cache.getOrLoad("a", key -> { loads.incrementAndGet(); return "1"; });
+        cache.getOrLoad("a", key -> { loads.incrementAndGet(); return "1"; });
+        cache.getOrLoad("b", key -> { loads.incrementAndGet(); return null; });
+        cache.getOrLoad("b", key -> { loads.incrementAndGet(); return null; });
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictionKeepsTheSizeBoundAndDropsTheOldest() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(1000, 60_000, now::get);
+        for (int i = 0; i < 5000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 1000);
+        }
+
+        assertTrue(cache.getEvictions() >= 4000);
+        assertEquals(4999, cache.get(4999));
+        assertNull(cache.get(0));
+        // The most recent entries survive; only the oldest tenth or so goes per eviction
+        long recentKept = 0;
+        for (int i = 4900; i < 5000; i++) {
+            if (cache.get(i) != null) {
+                recentKept++;
+            }
+        }
+        assertTrue(recentKept >= 90, "kept " + recentKept + " of the 100 newest");
+    }
+
+    @Test
+    void expiredEntriesAreEvictedFirst() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(10, 60_000, now::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i, now.get() + 10);
+        }
+        now.addAndGet(10);
+        for (int i = 5; i < 11; i++) {
+            cache.put(i, i);
+        }
+
+        // Purging the five expired entries made room; no live entry was dropped
+        assertEquals(5, cache.getEvictions());
+        assertEquals(6, cache.size());
+        assertEquals(5, cache.get(5));
+    }
+}